@@ -0,0 +1,320 @@
+package io.github.thingersoft.pm.api;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Binary artifact holding the parsed properties of a set of files, written at build time by the maven plugin {@code compile-properties}
+ * goal and memory mapped at startup when set through {@link io.github.thingersoft.pm.api.data.PropertiesStoreOptions#setCompiledPropertiesLocation(String)}.<br>
+ * Each file is stored as a section indexed by the MD5 fingerprint of its text content, the same one used to detect reloads: a file whose
+ * content still matches its fingerprint is loaded from its section, skipping the parsing, while changed or missing files fall back to
+ * their text.<br>
+ * Values that are valid {@code long}, {@code double} or {@code boolean} literals are stored along with their parsed value, so that their
+ * first typed read at startup doesn't parse them again.
+ */
+public final class CompiledProperties {
+
+	/**
+	 * Artifact format version, artifacts of other versions are ignored
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	// "PMCP"
+	private static final int MAGIC = 0x504d4350;
+	private static final int DIGEST_SIZE = 16;
+	private static final int SECTION_INDEX_ENTRY_SIZE = DIGEST_SIZE + 12;
+	private static final int ENTRY_HEADER_SIZE = 17;
+	private static final byte NO_PARSED_VALUE = 0;
+	private static final byte LONG_VALUE = 1;
+	private static final byte DOUBLE_VALUE = 2;
+	private static final byte BOOLEAN_VALUE = 3;
+
+	private final ByteBuffer content;
+	private final String charsetName;
+	private final int sectionsCount;
+	private final int sectionIndexOffset;
+
+	private CompiledProperties(ByteBuffer content, String charsetName, int sectionsCount, int sectionIndexOffset) {
+		this.content = content;
+		this.charsetName = charsetName;
+		this.sectionsCount = sectionsCount;
+		this.sectionIndexOffset = sectionIndexOffset;
+	}
+
+	/**
+	 * Parses the provided properties files and writes them to a binary artifact.<br>
+	 * Folders are expanded into their {@code *.properties} files, as {@link PropertiesManager#loadProperties(String...)} does.
+	 *
+	 * @param propertiesLocations
+	 * file system locations of properties
+	 * @param charset
+	 * properties files encoding, which must match the one used at runtime
+	 * @param target
+	 * artifact location, replaced if existing
+	 *
+	 * @throws IOException
+	 * if a file can't be read or the artifact can't be written
+	 * @throws IllegalArgumentException
+	 * if a file can't be parsed
+	 */
+	public static void compile(List<String> propertiesLocations, Charset charset, Path target) throws IOException {
+		// sections sorted by fingerprint, so that they can be looked up by binary search
+		TreeMap<ByteBuffer, Map<String, String>> sections = new TreeMap<>();
+		for (Path propertiesPath : expand(propertiesLocations)) {
+			ByteBuffer fileContent = ByteBuffer.wrap(Files.readAllBytes(propertiesPath));
+			sections.put(ByteBuffer.wrap(PropertiesManager.digest(fileContent)), PropertiesParser.parse(fileContent, charset));
+		}
+
+		byte[] encodedCharsetName = charset.name().getBytes(StandardCharsets.UTF_8);
+		List<byte[]> encodedSections = new ArrayList<>();
+		long size = 16 + encodedCharsetName.length + (long) sections.size() * SECTION_INDEX_ENTRY_SIZE;
+		for (Map<String, String> properties : sections.values()) {
+			byte[] encodedSection = encodeSection(properties);
+			encodedSections.add(encodedSection);
+			size += encodedSection.length;
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Compiled properties can't exceed 2 GB");
+		}
+
+		ByteBuffer artifact = ByteBuffer.allocate((int) size);
+		artifact.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(encodedCharsetName.length).put(encodedCharsetName).putInt(sections.size());
+		int sectionOffset = artifact.position() + sections.size() * SECTION_INDEX_ENTRY_SIZE;
+		int sectionIndex = 0;
+		for (Entry<ByteBuffer, Map<String, String>> section : sections.entrySet()) {
+			int sectionLength = encodedSections.get(sectionIndex++).length;
+			artifact.put(section.getKey().duplicate()).putInt(sectionOffset).putInt(sectionLength).putInt(section.getValue().size());
+			sectionOffset += sectionLength;
+		}
+		for (byte[] encodedSection : encodedSections) {
+			artifact.put(encodedSection);
+		}
+
+		if (target.getParent() != null) {
+			Files.createDirectories(target.getParent());
+		}
+		Files.write(target, artifact.array());
+	}
+
+	/**
+	 * Memory maps an artifact.
+	 *
+	 * @param location
+	 * artifact location
+	 *
+	 * @return
+	 * the mapped artifact, {@code null} if it has been written by another format version
+	 *
+	 * @throws IOException
+	 * if the artifact can't be read or isn't a compiled properties artifact
+	 */
+	static CompiledProperties open(Path location) throws IOException {
+		ByteBuffer content;
+		try (FileChannel channel = FileChannel.open(location, StandardOpenOption.READ)) {
+			content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			if (content.getInt() != MAGIC) {
+				throw new IOException(location + " is not a compiled properties artifact");
+			}
+			if (content.getInt() != FORMAT_VERSION) {
+				return null;
+			}
+			byte[] encodedCharsetName = new byte[content.getInt()];
+			content.get(encodedCharsetName);
+			int sectionsCount = content.getInt();
+			return new CompiledProperties(content, new String(encodedCharsetName, StandardCharsets.UTF_8), sectionsCount, content.position());
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException(location + " is truncated", e);
+		}
+	}
+
+	/**
+	 * @param charset
+	 * encoding of the files being loaded
+	 *
+	 * @return
+	 * {@code true} if the artifact has been compiled by parsing files with the same encoding
+	 */
+	boolean isCompiledWith(Charset charset) {
+		return charset.name().equals(charsetName);
+	}
+
+	/**
+	 * Looks up the section of a file by its fingerprint and decodes it.
+	 *
+	 * @param digest
+	 * MD5 fingerprint of the file text content
+	 *
+	 * @return
+	 * the file section, {@code null} if the artifact holds no file with the provided content
+	 */
+	Section find(byte[] digest) {
+		ByteBuffer index = content.duplicate();
+		int low = 0;
+		int high = sectionsCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int entryOffset = sectionIndexOffset + middle * SECTION_INDEX_ENTRY_SIZE;
+			int comparison = compareDigest(index, entryOffset, digest);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return decodeSection(index.getInt(entryOffset + DIGEST_SIZE), index.getInt(entryOffset + DIGEST_SIZE + 4),
+						index.getInt(entryOffset + DIGEST_SIZE + 8));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return
+	 * a negative integer, zero, or a positive integer as the digest at the provided offset is lower than, equal to, or greater than
+	 * the provided one, comparing bytes as signed values like {@link ByteBuffer#compareTo(ByteBuffer)} does
+	 */
+	private static int compareDigest(ByteBuffer index, int offset, byte[] digest) {
+		for (int i = 0; i < DIGEST_SIZE; i++) {
+			int comparison = Byte.compare(index.get(offset + i), digest[i]);
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+		return 0;
+	}
+
+	private Section decodeSection(int offset, int length, int entriesCount) {
+		ByteBuffer section = content.duplicate();
+		section.limit(offset + length).position(offset);
+		Map<String, String> properties = new HashMap<>(entriesCount * 4 / 3 + 1);
+		Map<String, Object> parsedValues = new HashMap<>();
+		for (int i = 0; i < entriesCount; i++) {
+			byte[] key = new byte[section.getInt()];
+			byte[] value = new byte[section.getInt()];
+			byte parsedValueType = section.get();
+			long parsedValue = section.getLong();
+			section.get(key).get(value);
+			String decodedKey = new String(key, StandardCharsets.UTF_8);
+			properties.put(decodedKey, new String(value, StandardCharsets.UTF_8));
+			if (parsedValueType == LONG_VALUE) {
+				parsedValues.put(decodedKey, parsedValue);
+			} else if (parsedValueType == DOUBLE_VALUE) {
+				parsedValues.put(decodedKey, Double.longBitsToDouble(parsedValue));
+			} else if (parsedValueType == BOOLEAN_VALUE) {
+				parsedValues.put(decodedKey, parsedValue != 0);
+			}
+		}
+		return new Section(properties, parsedValues);
+	}
+
+	private static byte[] encodeSection(Map<String, String> properties) {
+		List<byte[]> encodedEntries = new ArrayList<>(properties.size());
+		int length = 0;
+		for (Entry<String, String> property : properties.entrySet()) {
+			byte[] key = property.getKey().getBytes(StandardCharsets.UTF_8);
+			byte[] value = property.getValue().getBytes(StandardCharsets.UTF_8);
+			ByteBuffer encodedEntry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + key.length + value.length);
+			encodedEntry.putInt(key.length).putInt(value.length);
+			encodeParsedValue(property.getValue(), encodedEntry);
+			encodedEntry.put(key).put(value);
+			encodedEntries.add(encodedEntry.array());
+			length += encodedEntry.capacity();
+		}
+		ByteBuffer encodedSection = ByteBuffer.allocate(length);
+		for (byte[] encodedEntry : encodedEntries) {
+			encodedSection.put(encodedEntry);
+		}
+		return encodedSection.array();
+	}
+
+	/**
+	 * Writes the type and the parsed value of a literal, parsed the same way as {@link io.github.thingersoft.pm.api.data.SupportedTypes}
+	 * conversions do.
+	 */
+	private static void encodeParsedValue(String value, ByteBuffer encodedEntry) {
+		byte parsedValueType = NO_PARSED_VALUE;
+		long parsedValue = 0;
+		if (Boolean.TRUE.toString().equalsIgnoreCase(value) || Boolean.FALSE.toString().equalsIgnoreCase(value)) {
+			parsedValueType = BOOLEAN_VALUE;
+			parsedValue = Boolean.TRUE.toString().equalsIgnoreCase(value) ? 1 : 0;
+		} else {
+			try {
+				parsedValue = Long.parseLong(value);
+				parsedValueType = LONG_VALUE;
+			} catch (NumberFormatException e) {
+				try {
+					parsedValue = Double.doubleToRawLongBits(Double.parseDouble(value));
+					parsedValueType = DOUBLE_VALUE;
+				} catch (NumberFormatException e1) {
+					// not a literal
+				}
+			}
+		}
+		encodedEntry.put(parsedValueType).putLong(parsedValue);
+	}
+
+	private static List<Path> expand(List<String> propertiesLocations) throws IOException {
+		List<Path> propertiesPaths = new ArrayList<>();
+		for (String propertiesLocation : propertiesLocations) {
+			Path propertiesPath = FileSystems.getDefault().getPath(propertiesLocation);
+			if (Files.isDirectory(propertiesPath)) {
+				List<Path> directoryPaths = new ArrayList<>();
+				try (DirectoryStream<Path> propertiesStream = Files.newDirectoryStream(propertiesPath, PropertiesManager.PROPERTIES_FILES_GLOB)) {
+					for (Path directoryPath : propertiesStream) {
+						directoryPaths.add(directoryPath);
+					}
+				}
+				Collections.sort(directoryPaths);
+				propertiesPaths.addAll(directoryPaths);
+			} else {
+				propertiesPaths.add(propertiesPath);
+			}
+		}
+		return propertiesPaths;
+	}
+
+	/**
+	 * Properties of a single file, along with the parsed values of its literals.
+	 */
+	static final class Section {
+
+		private final Map<String, String> properties;
+		private final Map<String, Object> parsedValues;
+
+		private Section(Map<String, String> properties, Map<String, Object> parsedValues) {
+			this.properties = properties;
+			this.parsedValues = parsedValues;
+		}
+
+		Map<String, String> getProperties() {
+			return properties;
+		}
+
+		/**
+		 * @return
+		 * {@link Long}, {@link Double} or {@link Boolean} values of the properties holding such literals
+		 */
+		Map<String, Object> getParsedValues() {
+			return parsedValues;
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+package io.github.thingersoft.pm.api;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link PropertiesWatcher} implementation backed by a {@link WatchService}.
+ */
+final class NioPropertiesWatcher extends PropertiesWatcher implements Runnable {
+
+	private final WatchService watchService;
+	private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+	private final Thread thread;
+
+	NioPropertiesWatcher(WatchService watchService) {
+		this.watchService = watchService;
+		thread = new Thread(this, THREAD_NAME);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	protected void register(Path directory) throws IOException {
+		directories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE, OVERFLOW), directory);
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey watchKey = watchService.take();
+				Path directory = directories.get(watchKey);
+				if (directory != null) {
+					for (WatchEvent<?> event : watchKey.pollEvents()) {
+						if (event.kind() == OVERFLOW) {
+							fireDirectoryChange(directory);
+						} else if (event.kind() == ENTRY_CREATE) {
+							// files replaced by a rename are reported as created
+							fireFileCreate(directory.resolve((Path) event.context()));
+						} else if (event.kind() == ENTRY_DELETE) {
+							fireFileDelete(directory.resolve((Path) event.context()));
+						} else {
+							fireFileChange(directory.resolve((Path) event.context()));
+						}
+					}
+				}
+				if (!watchKey.reset()) {
+					directories.remove(watchKey);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// watcher closed
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+		thread.interrupt();
+	}
+
+}
@@ -0,0 +1,535 @@
+package io.github.thingersoft.pm.api;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Immutable properties map keeping keys and values as UTF-8 bytes outside of the heap.<br>
+ * Entries are appended to a single direct buffer as {@code [key length][value length][key][value]}, and indexed by an open addressing
+ * table with linear probing, also held in a direct buffer, whose slots store the key hash and the entry offset.<br>
+ * Lookups hash and compare the key bytes in place, so that only returned values are decoded to strings, and sorted views order the entry
+ * offsets by comparing key bytes in place as well.
+ * Memory is released by the garbage collector once the map is no longer referenced: each update allocates a new pair of buffers,
+ * leaving readers of the previous map unaffected.
+ */
+final class OffHeapProperties extends AbstractMap<String, String> {
+
+	private static final int ENTRY_HEADER_SIZE = 8;
+	private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+	private static final int FNV_PRIME = 0x01000193;
+
+	private final ByteBuffer entries;
+	// two ints per slot: key hash and entry offset + 1, zero meaning empty
+	private final IntBuffer slots;
+	private final int mask;
+	private final int size;
+
+	private OffHeapProperties(ByteBuffer entries, IntBuffer slots, int size) {
+		this.entries = entries;
+		this.slots = slots;
+		this.mask = slots.capacity() / 2 - 1;
+		this.size = size;
+	}
+
+	/**
+	 * @param properties
+	 * entries to be copied
+	 *
+	 * @return
+	 * an off-heap copy of the provided entries
+	 */
+	static OffHeapProperties of(Map<String, String> properties) {
+		return new Builder(properties.size(), 0).putAll(properties).build();
+	}
+
+	/**
+	 * Builds a new map made of the current entries overridden by the provided ones, without the removed ones.<br>
+	 * Current entries are copied as raw bytes, without being decoded.
+	 *
+	 * @param propertiesToMerge
+	 * entries to be merged
+	 * @param keysToRemove
+	 * keys of the entries to be removed, not among the merged ones
+	 *
+	 * @return
+	 * the merged map
+	 */
+	OffHeapProperties merge(Map<String, String> propertiesToMerge, Set<String> keysToRemove) {
+		BitSet overriddenSlots = new BitSet(mask + 1);
+		long overriddenBytes = 0;
+		for (String key : propertiesToMerge.keySet()) {
+			int slot = findSlot(key);
+			if (slot >= 0) {
+				overriddenSlots.set(slot);
+				overriddenBytes += getEntrySize(getEntryOffset(slot));
+			}
+		}
+		for (String key : keysToRemove) {
+			int slot = findSlot(key);
+			if (slot >= 0) {
+				overriddenSlots.set(slot);
+				overriddenBytes += getEntrySize(getEntryOffset(slot));
+			}
+		}
+
+		Builder builder = new Builder(size - overriddenSlots.cardinality() + propertiesToMerge.size(), entries.limit() - overriddenBytes);
+		for (int slot = 0; slot <= mask; slot++) {
+			if (isUsed(slot) && !overriddenSlots.get(slot)) {
+				builder.copy(this, slot);
+			}
+		}
+		return builder.putAll(propertiesToMerge).build();
+	}
+
+	/**
+	 * Sorts the entries by key, consistently with {@link String#compareTo(String)}.<br>
+	 * The sorted entry offsets are kept in a direct buffer too, so that the returned map holds no entry on heap. Each call sorts again.
+	 *
+	 * @return
+	 * a view of the entries sorted by key
+	 */
+	SortedMap<String, String> sort() {
+		int[] entryOffsets = new int[size];
+		for (int slot = findUsedSlot(0), i = 0; slot <= mask; slot = findUsedSlot(slot + 1)) {
+			entryOffsets[i++] = getEntryOffset(slot);
+		}
+		sort(entryOffsets, new int[size], 0, size);
+		IntBuffer sortedOffsets = ByteBuffer.allocateDirect(size * 4).asIntBuffer();
+		sortedOffsets.put(entryOffsets);
+		return new SortedRange(sortedOffsets.asReadOnlyBuffer(), 0, size);
+	}
+
+	// merge sort, stable and without worst cases
+	private void sort(int[] entryOffsets, int[] buffer, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		sort(entryOffsets, buffer, from, middle);
+		sort(entryOffsets, buffer, middle, to);
+		System.arraycopy(entryOffsets, from, buffer, from, to - from);
+		for (int i = from, left = from, right = middle; i < to; i++) {
+			if (right == to || (left < middle && compareKeys(buffer[left], buffer[right]) <= 0)) {
+				entryOffsets[i] = buffer[left++];
+			} else {
+				entryOffsets[i] = buffer[right++];
+			}
+		}
+	}
+
+	private int compareKeys(int entryOffset, int otherEntryOffset) {
+		int keyLength = entries.getInt(entryOffset);
+		int otherKeyLength = entries.getInt(otherEntryOffset);
+		for (int i = 0; i < Math.min(keyLength, otherKeyLength); i++) {
+			int comparison = toUtf16Order(entries.get(entryOffset + ENTRY_HEADER_SIZE + i))
+					- toUtf16Order(entries.get(otherEntryOffset + ENTRY_HEADER_SIZE + i));
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+		return keyLength - otherKeyLength;
+	}
+
+	@Override
+	public String get(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		int slot = findSlot((String) key);
+		return slot >= 0 ? decodeValue(getEntryOffset(slot)) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof String && findSlot((String) key) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		return new AbstractSet<Entry<String, String>>() {
+
+			@Override
+			public Iterator<Entry<String, String>> iterator() {
+				return new Iterator<Entry<String, String>>() {
+
+					private int nextSlot = findUsedSlot(0);
+
+					@Override
+					public boolean hasNext() {
+						return nextSlot <= mask;
+					}
+
+					@Override
+					public Entry<String, String> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						int entryOffset = getEntryOffset(nextSlot);
+						nextSlot = findUsedSlot(nextSlot + 1);
+						return new SimpleImmutableEntry<>(decodeKey(entryOffset), decodeValue(entryOffset));
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+		};
+	}
+
+	private int findUsedSlot(int fromSlot) {
+		int slot = fromSlot;
+		while (slot <= mask && !isUsed(slot)) {
+			slot++;
+		}
+		return slot;
+	}
+
+	/**
+	 * @return
+	 * the slot holding the provided key, -1 if missing
+	 */
+	private int findSlot(String key) {
+		// ascii keys, by far the most common, are hashed and compared without being encoded
+		byte[] encodedKey = isAscii(key) ? null : key.getBytes(StandardCharsets.UTF_8);
+		int hash = encodedKey == null ? hash(key) : hash(encodedKey);
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			if (!isUsed(slot)) {
+				return -1;
+			}
+			if (slots.get(slot * 2) == hash && keyEquals(getEntryOffset(slot), key, encodedKey)) {
+				return slot;
+			}
+		}
+	}
+
+	private boolean keyEquals(int entryOffset, String key, byte[] encodedKey) {
+		int keyLength = entries.getInt(entryOffset);
+		int keyOffset = entryOffset + ENTRY_HEADER_SIZE;
+		if (encodedKey != null) {
+			if (keyLength != encodedKey.length) {
+				return false;
+			}
+			for (int i = 0; i < keyLength; i++) {
+				if (entries.get(keyOffset + i) != encodedKey[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (keyLength != key.length()) {
+			return false;
+		}
+		for (int i = 0; i < keyLength; i++) {
+			if (entries.get(keyOffset + i) != (byte) key.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isUsed(int slot) {
+		return slots.get(slot * 2 + 1) != 0;
+	}
+
+	private int getEntryOffset(int slot) {
+		return slots.get(slot * 2 + 1) - 1;
+	}
+
+	private int getEntrySize(int entryOffset) {
+		return ENTRY_HEADER_SIZE + entries.getInt(entryOffset) + entries.getInt(entryOffset + 4);
+	}
+
+	private String decodeKey(int entryOffset) {
+		return decode(entryOffset + ENTRY_HEADER_SIZE, entries.getInt(entryOffset));
+	}
+
+	private String decodeValue(int entryOffset) {
+		return decode(entryOffset + ENTRY_HEADER_SIZE + entries.getInt(entryOffset), entries.getInt(entryOffset + 4));
+	}
+
+	private String decode(int offset, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer source = entries.duplicate();
+		source.position(offset);
+		source.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Maps UTF-8 bytes so that comparing them follows the UTF-16 order of {@link String#compareTo(String)}, where characters from U+E000 to
+	 * U+FFFF sort after supplementary ones: their lead bytes, 0xEE and 0xEF, are moved after the supplementary ones, 0xF0 to 0xF4.
+	 */
+	private static int toUtf16Order(byte b) {
+		int unsignedByte = b & 0xff;
+		return unsignedByte == 0xee || unsignedByte == 0xef ? unsignedByte + 7 : unsignedByte;
+	}
+
+	private static boolean isAscii(String key) {
+		for (int i = 0; i < key.length(); i++) {
+			if (key.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * FNV-1a hash of an ascii key, equal to the hash of its encoded bytes.
+	 */
+	private static int hash(String asciiKey) {
+		int hash = FNV_OFFSET_BASIS;
+		for (int i = 0; i < asciiKey.length(); i++) {
+			hash = (hash ^ asciiKey.charAt(i)) * FNV_PRIME;
+		}
+		return spread(hash);
+	}
+
+	private static int hash(byte[] encodedKey) {
+		int hash = FNV_OFFSET_BASIS;
+		for (byte b : encodedKey) {
+			hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+		}
+		return spread(hash);
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Sorted view of the entries between two positions of the sorted entry offsets.
+	 */
+	private final class SortedRange extends AbstractMap<String, String> implements SortedMap<String, String> {
+
+		private final IntBuffer sortedOffsets;
+		private final int from;
+		private final int to;
+
+		private SortedRange(IntBuffer sortedOffsets, int from, int to) {
+			this.sortedOffsets = sortedOffsets;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Binary search decoding the compared keys, as bounds may not be valid UTF-16.
+		 *
+		 * @return
+		 * the position of the first key within this range not lower than the provided one, {@code to} if there's none
+		 */
+		private int search(String key) {
+			int low = from;
+			int high = to;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (decodeKey(sortedOffsets.get(middle)).compareTo(key) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		@Override
+		public String get(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			int position = search((String) key);
+			if (position == to || !decodeKey(sortedOffsets.get(position)).equals(key)) {
+				return null;
+			}
+			return decodeValue(sortedOffsets.get(position));
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			return new AbstractSet<Entry<String, String>>() {
+
+				@Override
+				public Iterator<Entry<String, String>> iterator() {
+					return new Iterator<Entry<String, String>>() {
+
+						private int position = from;
+
+						@Override
+						public boolean hasNext() {
+							return position < to;
+						}
+
+						@Override
+						public Entry<String, String> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							int entryOffset = sortedOffsets.get(position++);
+							return new SimpleImmutableEntry<>(decodeKey(entryOffset), decodeValue(entryOffset));
+						}
+
+						@Override
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+
+					};
+				}
+
+				@Override
+				public int size() {
+					return to - from;
+				}
+
+			};
+		}
+
+		@Override
+		public Comparator<? super String> comparator() {
+			return null;
+		}
+
+		// bounds out of this range are clamped to it
+		@Override
+		public SortedMap<String, String> subMap(String fromKey, String toKey) {
+			if (fromKey.compareTo(toKey) > 0) {
+				throw new IllegalArgumentException("fromKey > toKey");
+			}
+			return new SortedRange(sortedOffsets, search(fromKey), search(toKey));
+		}
+
+		@Override
+		public SortedMap<String, String> headMap(String toKey) {
+			return new SortedRange(sortedOffsets, from, search(toKey));
+		}
+
+		@Override
+		public SortedMap<String, String> tailMap(String fromKey) {
+			return new SortedRange(sortedOffsets, search(fromKey), to);
+		}
+
+		@Override
+		public String firstKey() {
+			if (from == to) {
+				throw new NoSuchElementException();
+			}
+			return decodeKey(sortedOffsets.get(from));
+		}
+
+		@Override
+		public String lastKey() {
+			if (from == to) {
+				throw new NoSuchElementException();
+			}
+			return decodeKey(sortedOffsets.get(to - 1));
+		}
+
+	}
+
+	/**
+	 * Fills the buffers of a new map, sized for the expected number of entries and bytes.
+	 */
+	private static final class Builder {
+
+		private ByteBuffer entries;
+		private final IntBuffer slots;
+		private final int mask;
+		private int size;
+
+		private Builder(int expectedSize, long expectedBytes) {
+			// keep the load factor under 0.75
+			int capacity = Integer.highestOneBit(Math.max(expectedSize * 4 / 3, 1)) * 2;
+			slots = ByteBuffer.allocateDirect(capacity * 8).asIntBuffer();
+			mask = capacity - 1;
+			entries = ByteBuffer.allocateDirect(checkedSize(Math.max(expectedBytes, 64)));
+		}
+
+		private Builder putAll(Map<String, String> properties) {
+			for (Entry<String, String> property : properties.entrySet()) {
+				byte[] key = property.getKey().getBytes(StandardCharsets.UTF_8);
+				byte[] value = property.getValue().getBytes(StandardCharsets.UTF_8);
+				int entryOffset = reserve(ENTRY_HEADER_SIZE + key.length + value.length);
+				entries.putInt(key.length).putInt(value.length).put(key).put(value);
+				insert(hash(key), entryOffset);
+			}
+			return this;
+		}
+
+		private void copy(OffHeapProperties source, int sourceSlot) {
+			int sourceOffset = source.getEntryOffset(sourceSlot);
+			int entrySize = source.getEntrySize(sourceOffset);
+			int entryOffset = reserve(entrySize);
+			ByteBuffer sourceEntry = source.entries.duplicate();
+			sourceEntry.limit(sourceOffset + entrySize).position(sourceOffset);
+			entries.put(sourceEntry);
+			insert(source.slots.get(sourceSlot * 2), entryOffset);
+		}
+
+		private int reserve(int entrySize) {
+			if (entries.remaining() < entrySize) {
+				ByteBuffer grownEntries = ByteBuffer.allocateDirect(checkedSize(Math.max(entries.capacity() * 2L, (long) entries.position() + entrySize)));
+				entries.flip();
+				grownEntries.put(entries);
+				entries = grownEntries;
+			}
+			return entries.position();
+		}
+
+		private void insert(int hash, int entryOffset) {
+			int slot = hash & mask;
+			while (slots.get(slot * 2 + 1) != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots.put(slot * 2, hash);
+			slots.put(slot * 2 + 1, entryOffset + 1);
+			size++;
+		}
+
+		private OffHeapProperties build() {
+			entries.flip();
+			return new OffHeapProperties(entries.asReadOnlyBuffer(), slots.asReadOnlyBuffer(), size);
+		}
+
+		private static int checkedSize(long size) {
+			if (size > Integer.MAX_VALUE - ENTRY_HEADER_SIZE) {
+				throw new IllegalStateException("Off-heap properties can't exceed 2 GB");
+			}
+			return (int) size;
+		}
+
+	}
+
+}
@@ -0,0 +1,217 @@
+package io.github.thingersoft.pm.api;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable properties map made of a shared base map and a small overlay of the entries changed since the base was built.<br>
+ * Merging copies the overlay only, so that an update costs in proportion to the changed entries instead of the whole map.
+ * Once the overlay outgrows a threshold proportional to the square root of the base size it's compacted into a new base, which keeps
+ * both the overlay copies and the compactions cost sublinear on average.<br>
+ * Lookups of entries not in the overlay cost an additional hash lookup, maps built by a compaction have no overlay at all.
+ */
+final class OverlayProperties extends AbstractMap<String, String> {
+
+	private static final int MIN_COMPACTION_THRESHOLD = 64;
+	private static final int COMPACTION_THRESHOLD_FACTOR = 4;
+	// marks entries of the base removed by the overlay, compared by identity
+	private static final String REMOVED = new String("");
+
+	private final Map<String, String> base;
+	private final HashMap<String, String> overlay;
+	private final int size;
+
+	private OverlayProperties(Map<String, String> base, HashMap<String, String> overlay, int size) {
+		this.base = base;
+		this.overlay = overlay;
+		this.size = size;
+	}
+
+	/**
+	 * Builds a map made of the provided entries overridden by the provided changes.
+	 *
+	 * @param properties
+	 * current entries, never modified
+	 * @param changedProperties
+	 * entries to be added or replaced
+	 * @param removedKeys
+	 * keys of current entries to be removed, not among the changed ones
+	 *
+	 * @return
+	 * an overlay over the current base, or a compacted map when the overlay grows too large
+	 */
+	static Map<String, String> merge(Map<String, String> properties, Map<String, String> changedProperties, Set<String> removedKeys) {
+		Map<String, String> base = properties;
+		HashMap<String, String> overlay;
+		int size = properties.size();
+		if (properties instanceof OverlayProperties) {
+			base = ((OverlayProperties) properties).base;
+			overlay = new HashMap<>(((OverlayProperties) properties).overlay);
+		} else {
+			overlay = new HashMap<>();
+		}
+		for (Entry<String, String> changedProperty : changedProperties.entrySet()) {
+			if (!properties.containsKey(changedProperty.getKey())) {
+				size++;
+			}
+			overlay.put(changedProperty.getKey(), changedProperty.getValue());
+		}
+		for (String removedKey : removedKeys) {
+			size--;
+			if (base.containsKey(removedKey)) {
+				overlay.put(removedKey, REMOVED);
+			} else {
+				overlay.remove(removedKey);
+			}
+		}
+
+		if (overlay.size() <= Math.max(MIN_COMPACTION_THRESHOLD, COMPACTION_THRESHOLD_FACTOR * (int) Math.sqrt(base.size()))) {
+			return new OverlayProperties(base, overlay, size);
+		}
+		Map<String, String> overlayChanges = new HashMap<>();
+		Set<String> overlayRemovals = new HashSet<>();
+		for (Entry<String, String> overlayEntry : overlay.entrySet()) {
+			if (overlayEntry.getValue() == REMOVED) {
+				overlayRemovals.add(overlayEntry.getKey());
+			} else {
+				overlayChanges.put(overlayEntry.getKey(), overlayEntry.getValue());
+			}
+		}
+		if (base instanceof OffHeapProperties) {
+			return ((OffHeapProperties) base).merge(overlayChanges, overlayRemovals);
+		}
+		HashMap<String, String> compactedProperties = new HashMap<>(base);
+		compactedProperties.putAll(overlayChanges);
+		compactedProperties.keySet().removeAll(overlayRemovals);
+		return compactedProperties;
+	}
+
+	/**
+	 * @param properties
+	 * properties map
+	 *
+	 * @return
+	 * the map holding the bulk of the provided entries
+	 */
+	static Map<String, String> getBase(Map<String, String> properties) {
+		return properties instanceof OverlayProperties ? ((OverlayProperties) properties).base : properties;
+	}
+
+	/**
+	 * @param properties
+	 * properties map
+	 *
+	 * @return
+	 * the entries added or replaced over the base of the provided map
+	 */
+	static Map<String, String> getChangedProperties(Map<String, String> properties) {
+		Map<String, String> changedProperties = new HashMap<>();
+		if (properties instanceof OverlayProperties) {
+			for (Entry<String, String> overlayEntry : ((OverlayProperties) properties).overlay.entrySet()) {
+				if (overlayEntry.getValue() != REMOVED) {
+					changedProperties.put(overlayEntry.getKey(), overlayEntry.getValue());
+				}
+			}
+		}
+		return changedProperties;
+	}
+
+	/**
+	 * @param properties
+	 * properties map
+	 *
+	 * @return
+	 * the keys of the base entries removed by the provided map
+	 */
+	static Set<String> getRemovedKeys(Map<String, String> properties) {
+		Set<String> removedKeys = new HashSet<>();
+		if (properties instanceof OverlayProperties) {
+			for (Entry<String, String> overlayEntry : ((OverlayProperties) properties).overlay.entrySet()) {
+				if (overlayEntry.getValue() == REMOVED) {
+					removedKeys.add(overlayEntry.getKey());
+				}
+			}
+		}
+		return removedKeys;
+	}
+
+	@Override
+	public String get(Object key) {
+		String value = overlay.get(key);
+		if (value != null) {
+			return value == REMOVED ? null : value;
+		}
+		return base.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		return new AbstractSet<Entry<String, String>>() {
+
+			@Override
+			public Iterator<Entry<String, String>> iterator() {
+				return new Iterator<Entry<String, String>>() {
+
+					private final Iterator<Entry<String, String>> overlayIterator = overlay.entrySet().iterator();
+					private final Iterator<Entry<String, String>> baseIterator = base.entrySet().iterator();
+					private Entry<String, String> next = advance();
+
+					private Entry<String, String> advance() {
+						while (overlayIterator.hasNext()) {
+							Entry<String, String> overlayEntry = overlayIterator.next();
+							if (overlayEntry.getValue() != REMOVED) {
+								return new SimpleImmutableEntry<>(overlayEntry);
+							}
+						}
+						while (baseIterator.hasNext()) {
+							Entry<String, String> baseEntry = baseIterator.next();
+							if (!overlay.containsKey(baseEntry.getKey())) {
+								return baseEntry;
+							}
+						}
+						return null;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return next != null;
+					}
+
+					@Override
+					public Entry<String, String> next() {
+						if (next == null) {
+							throw new NoSuchElementException();
+						}
+						Entry<String, String> current = next;
+						next = advance();
+						return current;
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+		};
+	}
+
+}
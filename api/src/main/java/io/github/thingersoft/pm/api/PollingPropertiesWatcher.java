@@ -0,0 +1,151 @@
+package io.github.thingersoft.pm.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PropertiesWatcher} implementation checking every watched file from a single polling thread.<br>
+ * Used on file systems that can't deliver native change notifications.<br>
+ * Only the watched files get checked, so that directories are listed only when watched as a whole.
+ */
+final class PollingPropertiesWatcher extends PropertiesWatcher implements Runnable {
+
+	private final ScheduledExecutorService executor;
+	private final Map<Path, FileState> fileStates = new ConcurrentHashMap<>();
+	private final Map<Path, Map<Path, FileState>> directoryStates = new ConcurrentHashMap<>();
+
+	PollingPropertiesWatcher(long pollInterval) {
+		executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, THREAD_NAME);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		executor.scheduleWithFixedDelay(this, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	protected void register(Path directory) throws IOException {
+		// nothing to do, files are checked one by one
+	}
+
+	@Override
+	synchronized void watch(Path file, Listener listener) {
+		super.watch(file, listener);
+		Path absoluteFile = file.toAbsolutePath().normalize();
+		fileStates.put(absoluteFile, new FileState(absoluteFile.toFile()));
+	}
+
+	@Override
+	synchronized void watchDirectory(Path directory, Listener listener) {
+		super.watchDirectory(directory, listener);
+		Path absoluteDirectory = directory.toAbsolutePath().normalize();
+		if (!directoryStates.containsKey(absoluteDirectory)) {
+			directoryStates.put(absoluteDirectory, listFileStates(absoluteDirectory));
+		}
+	}
+
+	@Override
+	public void run() {
+		for (Entry<Path, FileState> fileStateEntry : fileStates.entrySet()) {
+			FileState currentState = new FileState(fileStateEntry.getKey().toFile());
+			if (!currentState.equals(fileStateEntry.getValue())) {
+				boolean existed = fileStateEntry.getValue().exists;
+				fileStateEntry.setValue(currentState);
+				if (currentState.exists) {
+					fireFileChange(fileStateEntry.getKey());
+				} else if (existed) {
+					fireFileDelete(fileStateEntry.getKey());
+				}
+			}
+		}
+		for (Entry<Path, Map<Path, FileState>> directoryStateEntry : directoryStates.entrySet()) {
+			Map<Path, FileState> previousStates = directoryStateEntry.getValue();
+			Map<Path, FileState> currentStates = listFileStates(directoryStateEntry.getKey());
+			directoryStateEntry.setValue(currentStates);
+			for (Entry<Path, FileState> currentStateEntry : currentStates.entrySet()) {
+				Path file = currentStateEntry.getKey();
+				FileState previousState = previousStates.get(file);
+				if (isWatched(file)) {
+					// already checked on its own
+					continue;
+				} else if (previousState == null) {
+					fireFileCreate(file);
+				} else if (!previousState.equals(currentStateEntry.getValue())) {
+					fireFileChange(file);
+				}
+			}
+			for (Path file : previousStates.keySet()) {
+				if (!currentStates.containsKey(file) && !isWatched(file)) {
+					fireFileDelete(file);
+				}
+			}
+		}
+	}
+
+	private static Map<Path, FileState> listFileStates(Path directory) {
+		Map<Path, FileState> fileStates = new HashMap<>();
+		File[] files = directory.toFile().listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.isFile()) {
+					fileStates.put(file.toPath(), new FileState(file));
+				}
+			}
+		}
+		return fileStates;
+	}
+
+	@Override
+	public void close() throws IOException {
+		executor.shutdownNow();
+	}
+
+	private static final class FileState {
+
+		private final boolean exists;
+		private final long lastModified;
+		private final long length;
+
+		private FileState(File file) {
+			exists = file.exists();
+			lastModified = file.lastModified();
+			length = file.length();
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + (exists ? 1231 : 1237);
+			result = prime * result + (int) (lastModified ^ (lastModified >>> 32));
+			result = prime * result + (int) (length ^ (length >>> 32));
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			FileState other = (FileState) obj;
+			return exists == other.exists && lastModified == other.lastModified && length == other.length;
+		}
+
+	}
+
+}
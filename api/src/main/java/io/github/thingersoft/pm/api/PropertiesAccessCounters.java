@@ -0,0 +1,136 @@
+package io.github.thingersoft.pm.api;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts reads of each property key.<br>
+ * Counters are created for every key of the current properties at once, on the first read of a key without one, and published as an
+ * immutable map: readers only perform a plain map lookup.<br>
+ * Reads are sampled before any lookup: one random read out of each sampling interval adds the whole interval to its counter, so that other
+ * reads only draw a thread local random number and counts are estimates. Counters are {@link LongAdder}s, whose striped cells don't contend
+ * among threads.
+ */
+final class PropertiesAccessCounters {
+
+	private static final Comparator<Entry<String, Long>> BY_COUNT = new Comparator<Entry<String, Long>>() {
+		@Override
+		public int compare(Entry<String, Long> entry1, Entry<String, Long> entry2) {
+			int comparison = Long.compare(entry1.getValue(), entry2.getValue());
+			// among equal counts lower keys come first once reversed
+			return comparison != 0 ? comparison : entry2.getKey().compareTo(entry1.getKey());
+		}
+	};
+
+	private volatile Map<String, LongAdder> counters = Collections.emptyMap();
+
+	/**
+	 * @param key
+	 * key of an existing property
+	 * @param snapshot
+	 * snapshot holding the property
+	 * @param samplingInterval
+	 * power of two average number of reads between two recorded ones
+	 */
+	void record(String key, PropertiesSnapshot snapshot, int samplingInterval) {
+		if (samplingInterval > 1 && (ThreadLocalRandom.current().nextInt() & (samplingInterval - 1)) != 0) {
+			return;
+		}
+		LongAdder counter = counters.get(key);
+		if (counter == null) {
+			counter = addCounters(key, snapshot.asMap().keySet());
+		}
+		counter.add(samplingInterval);
+	}
+
+	private synchronized LongAdder addCounters(String key, Set<String> keys) {
+		LongAdder counter = counters.get(key);
+		if (counter != null) {
+			return counter;
+		}
+		Map<String, LongAdder> newCounters = new HashMap<>(counters);
+		for (String newKey : keys) {
+			if (!newCounters.containsKey(newKey)) {
+				newCounters.put(newKey, new LongAdder());
+			}
+		}
+		// the key may belong to a snapshot older than the provided keys
+		counter = newCounters.get(key);
+		if (counter == null) {
+			counter = new LongAdder();
+			newCounters.put(key, counter);
+		}
+		counters = newCounters;
+		return counter;
+	}
+
+	/**
+	 * @param count
+	 * maximum number of keys to be returned
+	 *
+	 * @return
+	 * the most read keys with their estimated reads count, sorted by decreasing count
+	 */
+	Map<String, Long> getMostRead(int count) {
+		if (count <= 0) {
+			return Collections.emptyMap();
+		}
+		// keep the top entries only, in a heap whose head is the least read among them
+		PriorityQueue<Entry<String, Long>> mostRead = new PriorityQueue<>(count, BY_COUNT);
+		for (Entry<String, LongAdder> counter : counters.entrySet()) {
+			Entry<String, Long> entry = new SimpleImmutableEntry<>(counter.getKey(), counter.getValue().sum());
+			if (entry.getValue() == 0) {
+				continue;
+			}
+			if (mostRead.size() < count) {
+				mostRead.add(entry);
+			} else if (BY_COUNT.compare(entry, mostRead.peek()) > 0) {
+				mostRead.poll();
+				mostRead.add(entry);
+			}
+		}
+		List<Entry<String, Long>> sortedEntries = new ArrayList<>(mostRead);
+		Collections.sort(sortedEntries, Collections.reverseOrder(BY_COUNT));
+		Map<String, Long> mostReadMap = new LinkedHashMap<>();
+		for (Entry<String, Long> entry : sortedEntries) {
+			mostReadMap.put(entry.getKey(), entry.getValue());
+		}
+		return Collections.unmodifiableMap(mostReadMap);
+	}
+
+	/**
+	 * @param keys
+	 * keys of the current properties
+	 *
+	 * @return
+	 * the provided keys that have never been read, sorted
+	 */
+	SortedSet<String> getUnread(Set<String> keys) {
+		SortedSet<String> unread = new TreeSet<>();
+		for (String key : keys) {
+			LongAdder counter = counters.get(key);
+			if (counter == null || counter.sum() == 0) {
+				unread.add(key);
+			}
+		}
+		return Collections.unmodifiableSortedSet(unread);
+	}
+
+	synchronized void clear() {
+		counters = Collections.emptyMap();
+	}
+
+}
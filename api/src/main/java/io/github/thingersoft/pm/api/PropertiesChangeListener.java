@@ -0,0 +1,27 @@
+package io.github.thingersoft.pm.api;
+
+import java.util.List;
+
+import io.github.thingersoft.pm.api.data.PropertiesStoreOptions;
+import io.github.thingersoft.pm.api.data.PropertyChangeEvent;
+
+/**
+ * Callback notified of changes of the properties matching its subscription.
+ * 
+ * @see PropertiesStore#subscribe(String, PropertiesChangeListener)
+ * @see PropertiesStore#subscribeByPrefix(String, PropertiesChangeListener)
+ * @see PropertiesStore#subscribeByPattern(String, PropertiesChangeListener)
+ */
+public interface PropertiesChangeListener {
+
+	/**
+	 * Invoked through the {@link PropertiesStoreOptions#setListenersExecutor listeners executor} after one or more matching properties changed.<br>
+	 * Changes occurring while a previous notification is still pending or running are conflated:
+	 * each key is notified once, with the value it had before the first change and the latest one.
+	 * 
+	 * @param changes
+	 * the changed properties
+	 */
+	void propertiesChanged(List<PropertyChangeEvent> changes);
+
+}
@@ -0,0 +1,286 @@
+package io.github.thingersoft.pm.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Resolves {@code ${key}} and {@code ${key:default}} placeholders within properties values.<br>
+ * Values holding placeholders are parsed once into templates, and each referenced key is mapped to the keys referencing it.
+ * An update only resolves the loaded properties and the ones depending on them, directly or not: other values are left as resolved by
+ * previous updates.<br>
+ * Instances are immutable, so that an update can be prepared and then discarded if the load it belongs to is rejected.
+ */
+final class PropertiesInterpolator {
+
+	static final PropertiesInterpolator EMPTY = new PropertiesInterpolator(new HashMap<String, Template>(),
+			new HashMap<String, Set<String>>());
+
+	private static final String PLACEHOLDER_PREFIX = "${";
+	private static final char PLACEHOLDER_SUFFIX = '}';
+	private static final char DEFAULT_SEPARATOR = ':';
+
+	private final Map<String, Template> templates;
+	private final Map<String, Set<String>> dependents;
+
+	private PropertiesInterpolator(Map<String, Template> templates, Map<String, Set<String>> dependents) {
+		this.templates = templates;
+		this.dependents = dependents;
+	}
+
+	/**
+	 * Builds a new interpolator whose templates and dependencies account for the provided properties.
+	 *
+	 * @param loadedProperties
+	 * raw values of the properties being loaded
+	 * @param removedKeys
+	 * keys of the properties being removed
+	 *
+	 * @return
+	 * the updated interpolator, the current one if no template is involved
+	 */
+	PropertiesInterpolator update(Map<String, String> loadedProperties, Set<String> removedKeys) {
+		Map<String, Template> newTemplates = null;
+		Map<String, Set<String>> newDependents = null;
+		Set<String> copiedDependents = null;
+		Map<String, String> updatedProperties = loadedProperties;
+		if (!removedKeys.isEmpty()) {
+			updatedProperties = new HashMap<>(loadedProperties);
+			for (String removedKey : removedKeys) {
+				updatedProperties.put(removedKey, null);
+			}
+		}
+		for (Entry<String, String> updatedProperty : updatedProperties.entrySet()) {
+			String key = updatedProperty.getKey();
+			Template currentTemplate = templates.get(key);
+			Template template = updatedProperty.getValue() != null ? Template.parse(updatedProperty.getValue()) : null;
+			if (currentTemplate == null && template == null
+					|| currentTemplate != null && template != null && currentTemplate.value.equals(template.value)) {
+				continue;
+			}
+			if (newTemplates == null) {
+				newTemplates = new HashMap<>(templates);
+				newDependents = new HashMap<>(dependents);
+				copiedDependents = new HashSet<>();
+			}
+			if (currentTemplate != null) {
+				newTemplates.remove(key);
+				for (String reference : currentTemplate.references) {
+					Set<String> referenceDependents = getDependents(newDependents, copiedDependents, reference);
+					referenceDependents.remove(key);
+					if (referenceDependents.isEmpty()) {
+						newDependents.remove(reference);
+					}
+				}
+			}
+			if (template != null) {
+				newTemplates.put(key, template);
+				for (String reference : template.references) {
+					getDependents(newDependents, copiedDependents, reference).add(key);
+				}
+			}
+		}
+		return newTemplates == null ? this : new PropertiesInterpolator(newTemplates, newDependents);
+	}
+
+	// dependents sets are shared among interpolators, so they're copied before their first change
+	private static Set<String> getDependents(Map<String, Set<String>> dependents, Set<String> copiedDependents, String reference) {
+		Set<String> referenceDependents = dependents.get(reference);
+		if (referenceDependents == null) {
+			referenceDependents = new HashSet<>();
+			dependents.put(reference, referenceDependents);
+			copiedDependents.add(reference);
+		} else if (copiedDependents.add(reference)) {
+			referenceDependents = new HashSet<>(referenceDependents);
+			dependents.put(reference, referenceDependents);
+		}
+		return referenceDependents;
+	}
+
+	/**
+	 * Resolves the loaded properties and every property depending on loaded or removed ones.
+	 *
+	 * @param loadedProperties
+	 * raw values of the properties being loaded, as provided to {@link #update(Map, Set)}
+	 * @param removedKeys
+	 * keys of the properties being removed, as provided to {@link #update(Map, Set)}
+	 * @param snapshot
+	 * current snapshot, holding resolved values
+	 *
+	 * @return
+	 * resolved values of the loaded and dependent properties
+	 *
+	 * @throws IllegalArgumentException
+	 * if properties reference each other in a cycle, or a placeholder without default can't be resolved
+	 */
+	Map<String, String> resolve(Map<String, String> loadedProperties, Set<String> removedKeys, PropertiesSnapshot snapshot)
+			throws IllegalArgumentException {
+		if (templates.isEmpty()) {
+			return loadedProperties;
+		}
+		// collect dependents of the loaded and removed properties, breadth first
+		Set<String> dirtyKeys = new HashSet<>(loadedProperties.keySet());
+		dirtyKeys.addAll(removedKeys);
+		Deque<String> keysToVisit = new ArrayDeque<>(dirtyKeys);
+		while (!keysToVisit.isEmpty()) {
+			Set<String> keyDependents = dependents.get(keysToVisit.poll());
+			if (keyDependents != null) {
+				for (String dependent : keyDependents) {
+					if (dirtyKeys.add(dependent)) {
+						keysToVisit.add(dependent);
+					}
+				}
+			}
+		}
+
+		dirtyKeys.removeAll(removedKeys);
+
+		Resolution resolution = new Resolution(loadedProperties, removedKeys, snapshot, dirtyKeys);
+		for (String dirtyKey : dirtyKeys) {
+			resolution.resolve(dirtyKey);
+		}
+		return resolution.resolvedProperties;
+	}
+
+	/**
+	 * Resolution state of a single update.
+	 */
+	private final class Resolution {
+
+		private final Map<String, String> loadedProperties;
+		private final Set<String> removedKeys;
+		private final PropertiesSnapshot snapshot;
+		private final Set<String> dirtyKeys;
+		private final Map<String, String> resolvedProperties;
+		private final Set<String> resolvingKeys = new LinkedHashSet<>();
+
+		private Resolution(Map<String, String> loadedProperties, Set<String> removedKeys, PropertiesSnapshot snapshot, Set<String> dirtyKeys) {
+			this.loadedProperties = loadedProperties;
+			this.removedKeys = removedKeys;
+			this.snapshot = snapshot;
+			this.dirtyKeys = dirtyKeys;
+			resolvedProperties = new HashMap<>(dirtyKeys.size() * 4 / 3 + 1);
+		}
+
+		private String resolve(String key) {
+			String resolvedValue = resolvedProperties.get(key);
+			if (resolvedValue != null) {
+				return resolvedValue;
+			}
+			Template template = templates.get(key);
+			if (template == null) {
+				// dirty keys without template can only be loaded ones
+				resolvedValue = loadedProperties.get(key);
+			} else {
+				if (!resolvingKeys.add(key)) {
+					List<String> cycle = new ArrayList<>(resolvingKeys);
+					cycle = cycle.subList(cycle.indexOf(key), cycle.size());
+					throw new IllegalArgumentException("Circular property reference: " + String.join(" -> ", cycle) + " -> " + key);
+				}
+				resolvedValue = template.resolve(key, this);
+				resolvingKeys.remove(key);
+			}
+			resolvedProperties.put(key, resolvedValue);
+			return resolvedValue;
+		}
+
+		private String lookup(String key) {
+			String value = null;
+			if (dirtyKeys.contains(key)) {
+				return resolve(key);
+			} else if (!removedKeys.contains(key)) {
+				value = snapshot.get(key);
+			}
+			if (value == null) {
+				value = System.getProperty(key);
+			}
+			if (value == null) {
+				value = System.getenv(key);
+			}
+			return value;
+		}
+
+	}
+
+	/**
+	 * A value holding placeholders, split into literal text and references.
+	 */
+	private static final class Template {
+
+		private final String value;
+		// literal text before each placeholder, followed by the trailing text
+		private final List<String> literals;
+		private final List<String> references;
+		private final List<String> defaults;
+
+		private Template(String value, List<String> literals, List<String> references, List<String> defaults) {
+			this.value = value;
+			this.literals = literals;
+			this.references = references;
+			this.defaults = defaults;
+		}
+
+		/**
+		 * @param value
+		 * raw property value
+		 *
+		 * @return
+		 * the parsed template, {@code null} if the value holds no placeholder
+		 */
+		private static Template parse(String value) {
+			int placeholderStart = value.indexOf(PLACEHOLDER_PREFIX);
+			if (placeholderStart < 0) {
+				return null;
+			}
+			List<String> literals = new ArrayList<>();
+			List<String> references = new ArrayList<>();
+			List<String> defaults = new ArrayList<>();
+			int literalStart = 0;
+			while (placeholderStart >= 0) {
+				int placeholderEnd = value.indexOf(PLACEHOLDER_SUFFIX, placeholderStart + PLACEHOLDER_PREFIX.length());
+				if (placeholderEnd < 0) {
+					// unterminated placeholders are plain text
+					break;
+				}
+				String placeholder = value.substring(placeholderStart + PLACEHOLDER_PREFIX.length(), placeholderEnd);
+				int separatorIndex = placeholder.indexOf(DEFAULT_SEPARATOR);
+				literals.add(value.substring(literalStart, placeholderStart));
+				references.add(separatorIndex < 0 ? placeholder : placeholder.substring(0, separatorIndex));
+				defaults.add(separatorIndex < 0 ? null : placeholder.substring(separatorIndex + 1));
+				literalStart = placeholderEnd + 1;
+				placeholderStart = value.indexOf(PLACEHOLDER_PREFIX, literalStart);
+			}
+			if (references.isEmpty()) {
+				return null;
+			}
+			literals.add(value.substring(literalStart));
+			return new Template(value, literals, Collections.unmodifiableList(references), defaults);
+		}
+
+		private String resolve(String key, Resolution resolution) {
+			StringBuilder resolvedValue = new StringBuilder(value.length());
+			for (int i = 0; i < references.size(); i++) {
+				resolvedValue.append(literals.get(i));
+				String referenceValue = resolution.lookup(references.get(i));
+				if (referenceValue == null) {
+					referenceValue = defaults.get(i);
+				}
+				if (referenceValue == null) {
+					throw new IllegalArgumentException("Can't resolve placeholder ${" + references.get(i) + "} of property " + key);
+				}
+				resolvedValue.append(referenceValue);
+			}
+			return resolvedValue.append(literals.get(references.size())).toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+package io.github.thingersoft.pm.api;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Properties parsed from a single file, along with its precedence among the other files of a {@link PropertiesManager}.<br>
+ * Layers are ranked by the position of their location within the first load including it: files of the same folder share the folder rank
+ * and are ordered by name. Higher layers override lower ones, whatever the order in which they're reloaded.<br>
+ * A layer may read its properties from a snapshot holding the same entries, instead of keeping a copy of them.
+ */
+final class PropertiesLayer implements Comparable<PropertiesLayer> {
+
+	private final String location;
+	private final int rank;
+	private final Map<String, String> properties;
+	private final boolean sharingSnapshot;
+
+	PropertiesLayer(String location, int rank, Map<String, String> properties) {
+		this(location, rank, properties, false);
+	}
+
+	private PropertiesLayer(String location, int rank, Map<String, String> properties, boolean sharingSnapshot) {
+		this.location = location;
+		this.rank = rank;
+		this.properties = properties;
+		this.sharingSnapshot = sharingSnapshot;
+	}
+
+	/**
+	 * @param snapshot
+	 * snapshot holding the same entries as this layer
+	 * 
+	 * @return
+	 * a layer reading its properties from the provided snapshot
+	 */
+	PropertiesLayer shareSnapshot(PropertiesSnapshot snapshot) {
+		return new PropertiesLayer(location, rank, snapshot.getProperties(), true);
+	}
+
+	/**
+	 * @return
+	 * a layer holding its own heap copy of the properties if this one reads them from a snapshot, this layer otherwise
+	 */
+	PropertiesLayer unshareSnapshot() {
+		return sharingSnapshot ? new PropertiesLayer(location, rank, new HashMap<>(properties)) : this;
+	}
+
+	/**
+	 * Collects the keys whose value differs between this layer and the provided properties of the same file.
+	 *
+	 * @param newProperties
+	 * properties parsed from a new version of the file
+	 * @param changedKeys
+	 * collects keys that have been added, changed or removed
+	 */
+	void collectChangedKeys(Map<String, String> newProperties, Set<String> changedKeys) {
+		for (Entry<String, String> newProperty : newProperties.entrySet()) {
+			if (!newProperty.getValue().equals(properties.get(newProperty.getKey()))) {
+				changedKeys.add(newProperty.getKey());
+			}
+		}
+		for (String key : properties.keySet()) {
+			if (!newProperties.containsKey(key)) {
+				changedKeys.add(key);
+			}
+		}
+	}
+
+	String getLocation() {
+		return location;
+	}
+
+	int getRank() {
+		return rank;
+	}
+
+	Map<String, String> getProperties() {
+		return properties;
+	}
+
+	@Override
+	public int compareTo(PropertiesLayer other) {
+		int comparison = Integer.compare(rank, other.rank);
+		return comparison != 0 ? comparison : location.compareTo(other.location);
+	}
+
+}
@@ -0,0 +1,66 @@
+package io.github.thingersoft.pm.api;
+
+/**
+ * Management interface exposing load figures of a single properties file, registered as
+ * {@value #OBJECT_NAME_PREFIX}<i>quoted location</i>, followed by {@code ,store=}<i>quoted name</i> for named {@link PropertiesManager}s.<br>
+ * Files loaded together share the merge and injection figures of their common update.
+ */
+public interface PropertiesLocationMXBean {
+
+	String OBJECT_NAME_PREFIX = "io.github.thingersoft.pm:type=PropertiesLocation,name=";
+
+	/**
+	 * @return
+	 * properties file location
+	 */
+	String getLocation();
+
+	/**
+	 * @return
+	 * successful loads and reloads
+	 */
+	long getReloadsCount();
+
+	/**
+	 * @return
+	 * loads and reloads rejected because the file couldn't be read, parsed or converted
+	 */
+	long getFailedReloadsCount();
+
+	/**
+	 * @return
+	 * time spent reading and parsing the file by the last successful load, in microseconds
+	 */
+	long getLastParseMicros();
+
+	/**
+	 * @return
+	 * time spent merging the file into a new snapshot and converting injected values by the last successful load, in microseconds
+	 */
+	long getLastMergeMicros();
+
+	/**
+	 * @return
+	 * time spent injecting changed values into annotated fields by the last successful load, in microseconds
+	 */
+	long getLastInjectMicros();
+
+	/**
+	 * @return
+	 * size of the file read by the last successful load
+	 */
+	long getLastBytesRead();
+
+	/**
+	 * @return
+	 * number of properties defined by the file at the last successful load
+	 */
+	int getKeysCount();
+
+	/**
+	 * @return
+	 * milliseconds elapsed since the last load that changed any property, -1 if none did
+	 */
+	long getMillisSinceLastChange();
+
+}
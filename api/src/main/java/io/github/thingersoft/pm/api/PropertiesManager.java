@@ -0,0 +1,1752 @@
+package io.github.thingersoft.pm.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.thingersoft.pm.api.annotations.Property;
+import io.github.thingersoft.pm.api.data.PropertiesStoreOptions;
+import io.github.thingersoft.pm.api.data.PropertyChangeEvent;
+import io.github.thingersoft.pm.api.data.RefreshStrategy;
+import io.github.thingersoft.pm.api.data.StorageMode;
+
+/**
+ * Holds a set of properties loaded from properties files, along with its own options, watcher, listeners and injected fields.<br>
+ * Each instance is independent from the others: its loads, reloads and reads never contend with the ones of other instances,
+ * so that tenants or modules sharing a JVM can be given separate managers.
+ * {@link PropertiesStore} is a static facade over a default instance.<br>
+ * Managers built with a name expose their load figures through JMX, unnamed ones don't.
+ */
+public final class PropertiesManager implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PropertiesManager.class);
+
+	private static final Pattern LOCATION_VARIABLE_PATTERN = Pattern.compile("\\{.+\\}");
+	static final String PROPERTIES_FILES_GLOB = "*.properties";
+	private static final int MAX_CACHED_KEY_PATTERNS = 256;
+	// smaller files are cheaper to copy than to map
+	private static final int MAPPED_FILE_THRESHOLD = 1024 * 1024;
+	private static final ConcurrentMap<String, Pattern> KEY_PATTERNS = new ConcurrentHashMap<>();
+
+	private final String name;
+	private volatile PropertiesSnapshot snapshot = PropertiesSnapshot.empty(this, 0);
+	private volatile PropertiesWatcher watcher;
+	private volatile ScheduledThreadPoolExecutor reloadExecutor;
+	private final Map<String, ScheduledFuture<?>> pendingReloads = new HashMap<>();
+	// runs sources fetches, so that slow sources hold neither the reloader thread nor each other
+	private ExecutorService fetchExecutor;
+	private final Map<String, PropertySource> sources = new ConcurrentHashMap<>();
+	private final Map<String, byte[]> digests = new HashMap<>();
+	private final List<PropertiesSubscription> subscriptions = new CopyOnWriteArrayList<>();
+	private final PropertiesMetrics metrics;
+	private final PropertiesAccessCounters accessCounters = new PropertiesAccessCounters();
+	private PropertiesInterpolator interpolator = PropertiesInterpolator.EMPTY;
+	// parsed properties of each loaded file, sorted by increasing precedence
+	private List<PropertiesLayer> layers = new ArrayList<>();
+	private final Map<String, PropertiesLayer> layersByLocation = new HashMap<>();
+	// precedence of explicitly loaded files and folders, by location
+	private final Map<String, Integer> locationRanks = new HashMap<>();
+	private final Set<String> directoryFilesLocations = ConcurrentHashMap.newKeySet();
+	private ExecutorService defaultListenersExecutor;
+	private final Map<String, List<PropertyInjector>> injectionMap = new HashMap<>();
+	private final Set<Field> injectedFields = new HashSet<>();
+	private final Set<Class<?>> initializedClasses = new HashSet<>();
+
+	private volatile PropertiesStoreOptions options = new PropertiesStoreOptions();
+
+	/**
+	 * Creates an unnamed manager, not exposed through JMX.
+	 */
+	public PropertiesManager() {
+		this(null, false);
+	}
+
+	/**
+	 * Creates a named manager, whose load figures are exposed through JMX MBeans whose names include a {@code store} key set to the provided
+	 * name.
+	 * 
+	 * @param name
+	 * manager name, unique within the JVM
+	 * 
+	 * @see PropertiesStoreMXBean
+	 * @see PropertiesLocationMXBean
+	 */
+	public PropertiesManager(String name) {
+		this(name, true);
+		if (StringUtils.isBlank(name)) {
+			throw new IllegalArgumentException("Manager name must not be blank");
+		}
+	}
+
+	PropertiesManager(String name, boolean monitored) {
+		this.name = name;
+		metrics = new PropertiesMetrics(this, name, monitored);
+	}
+
+	/**
+	 * @return
+	 * the manager name, {@code null} if unnamed
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Initializes the manager by a class annotated with {@link io.github.thingersoft.pm.api.annotations.Properties}, unless already done.
+	 * 
+	 * @param annotatedClass
+	 * class annotated with {@link io.github.thingersoft.pm.api.annotations.Properties}
+	 */
+	public synchronized void checkInitByAnnotatedClass(Class<?> annotatedClass) {
+		if (!initializedClasses.contains(annotatedClass)) {
+			initByAnnotatedClass(annotatedClass);
+		}
+	}
+
+	/**
+	 * Configures the manager by the attributes of the {@link io.github.thingersoft.pm.api.annotations.Properties} annotation of the provided
+	 * class, binds its {@link Property} annotated static fields to the manager properties and loads the annotated locations.
+	 * 
+	 * @param mappedClass
+	 * class annotated with {@link io.github.thingersoft.pm.api.annotations.Properties}
+	 */
+	public synchronized void initByAnnotatedClass(Class<?> mappedClass) {
+		initializedClasses.add(mappedClass);
+
+		io.github.thingersoft.pm.api.annotations.Properties propertiesAnnotation = mappedClass
+				.getAnnotation(io.github.thingersoft.pm.api.annotations.Properties.class);
+
+		// configure and initialize the manager by @Properties annotation attributes
+		options.setHotReload(propertiesAnnotation.hotReload());
+		options.setDatePattern(propertiesAnnotation.datePattern());
+		options.setObfuscatedPropertyPattern(propertiesAnnotation.obfuscatedPropertyPattern());
+		options.setObfuscatedPropertyPlaceholder(propertiesAnnotation.obfuscatedPropertyPlaceholder());
+		options.setLocale(propertiesAnnotation.locale());
+		options.setCompiledPropertiesLocation(propertiesAnnotation.compiledPropertiesLocation());
+
+		// look for fields annotated with @Property within matching classes
+		PropertyFieldsWriter fieldsWriter = findFieldsWriter(mappedClass);
+		for (Field field : mappedClass.getDeclaredFields()) {
+			if (field.isAnnotationPresent(Property.class) && !injectedFields.contains(field)) {
+				// compile and save an injector for future updates
+				PropertyInjector injector = new PropertyInjector(field, fieldsWriter);
+				List<PropertyInjector> injectors = injectionMap.get(injector.getPropertyKey());
+				if (injectors == null) {
+					injectors = new ArrayList<>();
+					injectionMap.put(injector.getPropertyKey(), injectors);
+				}
+				injectors.add(injector);
+				injectedFields.add(field);
+				// later updates will only inject changed properties, so align the field to the current ones
+				injector.inject(injector.convert(snapshot, options));
+			}
+		}
+
+		loadProperties(propertiesAnnotation.propertiesLocations());
+	}
+
+	/**
+	 * @return
+	 * the generated fields writer of the provided class, {@code null} if there's none and fields must be written through reflection
+	 */
+	private static PropertyFieldsWriter findFieldsWriter(Class<?> mappedClass) {
+		try {
+			for (PropertyFieldsWriter fieldsWriter : ServiceLoader.load(PropertyFieldsWriter.class, mappedClass.getClassLoader())) {
+				if (fieldsWriter.getMappedClass() == mappedClass) {
+					return fieldsWriter;
+				}
+			}
+		} catch (ServiceConfigurationError | LinkageError e) {
+			LOG.warn("Can't load property fields writers, writing fields of " + mappedClass.getName() + " through reflection", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Load properties from the provided locations and merges them into the centralized storage.<br>
+	 * Locations may contain system and/or environment variables within curly braces:<br><br>
+	 * {myapp.conf.folder}/app.properties<br><br>
+	 * If location is a folder each *.properties file inside will be loaded.<br>
+	 * Files are read and parsed in parallel, then merged in a single update: later locations override earlier ones and files within a folder
+	 * are applied in name order. If any file can't be loaded the storage is left untouched.<br>
+	 * Each file keeps the precedence of its first load across reloads, and files later created within a watched folder are ranked by name
+	 * among the files of that folder. A reload only updates the properties changed within the reloaded file, keys removed from it fall back
+	 * to the highest file still defining them.<br>
+	 * When {@code hotReload} is {@code true} each scanned properties file will be watched by a single thread shared among all locations.
+	 * Folders are watched as a whole: properties files created within them are loaded on their own, and the properties of deleted ones
+	 * are withdrawn.<br>
+	 * In this case the caller application may invoke {@link #stopWatching()} before shutting down.<br>
+	 * Load figures of named managers are exposed through the {@link PropertiesStoreMXBean} and {@link PropertiesLocationMXBean} MBeans.
+	 * 
+	 * @param propertiesLocations
+	 * file system locations of properties
+	 */
+	public synchronized void loadProperties(String... propertiesLocations) {
+		metrics.register();
+
+		List<String> interpolatedPropertiesLocations = new ArrayList<>();
+		for (String propertiesLocation : propertiesLocations) {
+			String interpolatedLocation = propertiesLocation;
+			Matcher variablesMatcher = LOCATION_VARIABLE_PATTERN.matcher(propertiesLocation);
+			while (variablesMatcher.find()) {
+				String matchedString = variablesMatcher.group();
+				String variable = matchedString.substring(1, matchedString.length() - 1);
+				String variableValue = System.getProperty(variable) != null ? System.getProperty(variable) : System.getenv(variable);
+				interpolatedLocation = interpolatedLocation.replace(matchedString, variableValue);
+			}
+			interpolatedPropertiesLocations.add(interpolatedLocation);
+		}
+
+		// expand directories into their files, sorted by name so that precedence doesn't depend on the file system
+		List<String> propertiesFilesLocations = new ArrayList<>();
+		List<String> filesLocations = new ArrayList<>();
+		List<Path> directories = new ArrayList<>();
+		for (String propertiesLocation : interpolatedPropertiesLocations) {
+			Path propertiesPath = FileSystems.getDefault().getPath(propertiesLocation);
+			if (propertiesPath.toFile().isDirectory()) {
+				// absolute locations match the paths of files later reported by the watcher
+				Path directory = propertiesPath.toAbsolutePath().normalize();
+				rankLocation(directory.toString());
+				List<String> directoryFilesLocations = new ArrayList<>();
+				try (DirectoryStream<Path> propertiesStream = Files.newDirectoryStream(directory, PROPERTIES_FILES_GLOB)) {
+					for (Path propertiesFilePath : propertiesStream) {
+						directoryFilesLocations.add(propertiesFilePath.toString());
+					}
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+				Collections.sort(directoryFilesLocations);
+				propertiesFilesLocations.addAll(directoryFilesLocations);
+				directories.add(directory);
+			} else {
+				rankLocation(propertiesLocation);
+				propertiesFilesLocations.add(propertiesLocation);
+				filesLocations.add(propertiesLocation);
+			}
+		}
+
+		updateProperties(propertiesFilesLocations);
+		for (String propertiesFileLocation : propertiesFilesLocations) {
+			if (!filesLocations.contains(propertiesFileLocation)) {
+				directoryFilesLocations.add(propertiesFileLocation);
+			}
+		}
+
+		// if hotReload flag is active register the files and folders to the shared watcher
+		if (options.isHotReload()) {
+			for (String fileLocation : filesLocations) {
+				watch(fileLocation);
+			}
+			for (Path directory : directories) {
+				watchDirectory(directory);
+			}
+		}
+	}
+
+	/**
+	 * Adds a source fetched once, on the calling thread.
+	 * 
+	 * @param source
+	 * properties source
+	 * 
+	 * @see #addSource(PropertySource, RefreshStrategy)
+	 */
+	public void addSource(PropertySource source) {
+		addSource(source, RefreshStrategy.never());
+	}
+
+	/**
+	 * Adds a source of properties other than files, such as the ones built by {@link PropertySources}.<br>
+	 * The source is fetched a first time on the calling thread, and takes precedence over every file or source added before it.
+	 * Periodic sources are then refreshed in the background: the reloader thread shared with watched files schedules each refresh,
+	 * while fetches run on a separate pool so that a slow source never delays file reloads or other sources. Readers keep being served
+	 * the last fetched values until a refresh completes, and a failed refresh keeps them.
+	 * 
+	 * @param source
+	 * properties source, whose name must not be used by any other source or file of the manager
+	 * @param refreshStrategy
+	 * when the source gets fetched again
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the source name is already in use, or its properties can't be converted or interpolated
+	 */
+	public void addSource(PropertySource source, RefreshStrategy refreshStrategy) {
+		String sourceName = source.getName();
+		if (sources.containsKey(sourceName)) {
+			throw new IllegalArgumentException("Properties source " + sourceName + " already added");
+		}
+		// fetched before locking, like the refreshes
+		PropertiesFile fetchedSource = fetchSource(source);
+		synchronized (this) {
+			if (sources.containsKey(sourceName) || layersByLocation.containsKey(sourceName)) {
+				throw new IllegalArgumentException("Properties source " + sourceName + " already added");
+			}
+			metrics.register();
+			rankLocation(sourceName);
+			mergeProperties(Collections.singletonList(fetchedSource));
+			sources.put(sourceName, source);
+		}
+		LOG.info("Properties source {} added, refreshed {}", sourceName, refreshStrategy);
+		if (refreshStrategy.isPeriodic()) {
+			scheduleRefresh(source, refreshStrategy.getDelayMillis());
+		}
+	}
+
+	/**
+	 * Removes a source along with its properties, each removed key falling back to the highest file or source still defining it.
+	 * 
+	 * @param sourceName
+	 * name of the source to be removed
+	 * 
+	 * @return
+	 * {@code true} if the source had been added
+	 */
+	public synchronized boolean removeSource(String sourceName) {
+		if (sources.remove(sourceName) == null) {
+			return false;
+		}
+		synchronized (pendingReloads) {
+			ScheduledFuture<?> pendingRefresh = pendingReloads.remove(sourceName);
+			if (pendingRefresh != null) {
+				pendingRefresh.cancel(false);
+			}
+		}
+		LOG.info("Removing properties source {}", sourceName);
+		mergeProperties(Collections.<PropertiesFile> emptyList(), Collections.singleton(sourceName));
+		return true;
+	}
+
+	private void rankLocation(String location) {
+		if (!locationRanks.containsKey(location)) {
+			locationRanks.put(location, locationRanks.size());
+		}
+	}
+
+	/**
+	 * @return
+	 * the rank of the provided file, the one of its folder if it has been loaded as part of it
+	 */
+	private int getRank(String propertiesLocation) {
+		PropertiesLayer layer = layersByLocation.get(propertiesLocation);
+		if (layer != null) {
+			return layer.getRank();
+		}
+		Integer rank = locationRanks.get(propertiesLocation);
+		if (rank == null) {
+			Path directory = FileSystems.getDefault().getPath(propertiesLocation).getParent();
+			rank = directory != null ? locationRanks.get(directory.toString()) : null;
+		}
+		if (rank == null) {
+			rankLocation(propertiesLocation);
+			rank = locationRanks.get(propertiesLocation);
+		}
+		return rank;
+	}
+
+	private void watch(final String propertiesLocation) {
+		if (watcher == null) {
+			watcher = PropertiesWatcher.create(options.getPollInterval());
+		}
+		watcher.watch(FileSystems.getDefault().getPath(propertiesLocation), new PropertiesWatcher.Listener() {
+			@Override
+			public void onFileChange(Path file) {
+				LOG.debug("Change detected for properties file {}", propertiesLocation);
+				scheduleReload(propertiesLocation);
+			}
+		});
+	}
+
+	private void watchDirectory(final Path directory) {
+		if (watcher == null) {
+			watcher = PropertiesWatcher.create(options.getPollInterval());
+		}
+		final PathMatcher propertiesFilesMatcher = directory.getFileSystem().getPathMatcher("glob:" + PROPERTIES_FILES_GLOB);
+		watcher.watchDirectory(directory, new PropertiesWatcher.Listener() {
+			@Override
+			public void onFileChange(Path file) {
+				if (propertiesFilesMatcher.matches(file.getFileName())) {
+					LOG.debug("Change detected for properties file {}", file);
+					scheduleDirectoryFileReload(file.toString());
+				}
+			}
+
+			@Override
+			public void onFileCreate(Path file) {
+				if (propertiesFilesMatcher.matches(file.getFileName())) {
+					LOG.debug("Properties file {} created", file);
+					scheduleDirectoryFileReload(file.toString());
+				}
+			}
+
+			@Override
+			public void onFileDelete(Path file) {
+				if (propertiesFilesMatcher.matches(file.getFileName())) {
+					LOG.debug("Properties file {} deleted", file);
+					scheduleDirectoryFileReload(file.toString());
+				}
+			}
+
+			@Override
+			public void onDirectoryChange(Path directory) {
+				LOG.debug("Events lost for properties directory {}, scanning it again", directory);
+				try (DirectoryStream<Path> propertiesStream = Files.newDirectoryStream(directory, PROPERTIES_FILES_GLOB)) {
+					for (Path propertiesFilePath : propertiesStream) {
+						scheduleDirectoryFileReload(propertiesFilePath.toString());
+					}
+				} catch (IOException e) {
+					LOG.error("Can't scan properties directory " + directory, e);
+				}
+				for (String directoryFileLocation : directoryFilesLocations) {
+					if (FileSystems.getDefault().getPath(directoryFileLocation).getParent().equals(directory)) {
+						scheduleDirectoryFileReload(directoryFileLocation);
+					}
+				}
+			}
+		});
+	}
+
+	private void scheduleDirectoryFileReload(String propertiesLocation) {
+		directoryFilesLocations.add(propertiesLocation);
+		scheduleReload(propertiesLocation);
+	}
+
+	/**
+	 * Schedules a reload of the provided location once no further change is detected for {@code reloadQuietPeriod} milliseconds.
+	 */
+	private void scheduleReload(final String propertiesLocation) {
+		synchronized (pendingReloads) {
+			ScheduledFuture<?> pendingReload = pendingReloads.get(propertiesLocation);
+			if (pendingReload != null) {
+				pendingReload.cancel(false);
+			}
+			pendingReloads.put(propertiesLocation, getReloadExecutor().schedule(new Runnable() {
+				@Override
+				public void run() {
+					reloadProperties(propertiesLocation);
+				}
+			}, options.getReloadQuietPeriod(), TimeUnit.MILLISECONDS));
+		}
+	}
+
+	/**
+	 * Schedules the next refresh of a source, which hands its fetch over to the fetch pool.<br>
+	 * A refresh is scheduled only once the previous one is over, so that fetches of the same source never overlap.
+	 */
+	private void scheduleRefresh(final PropertySource source, final long delayMillis) {
+		synchronized (pendingReloads) {
+			pendingReloads.put(source.getName(), getReloadExecutor().schedule(new Runnable() {
+				@Override
+				public void run() {
+					synchronized (pendingReloads) {
+						if (!pendingReloads.containsKey(source.getName())) {
+							return;
+						}
+						if (fetchExecutor == null) {
+							fetchExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+								@Override
+								public Thread newThread(Runnable runnable) {
+									Thread thread = new Thread(runnable, "properties-fetcher");
+									thread.setDaemon(true);
+									return thread;
+								}
+							});
+						}
+						fetchExecutor.execute(new Runnable() {
+							@Override
+							public void run() {
+								refreshSource(source, delayMillis);
+							}
+						});
+					}
+				}
+			}, delayMillis, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	/**
+	 * Fetches a source without holding the manager lock, then merges its properties if it's still added.<br>
+	 * Sources that can't be fetched, converted or interpolated keep their current entries until the next refresh.
+	 */
+	private void refreshSource(PropertySource source, long delayMillis) {
+		String sourceName = source.getName();
+		if (sources.get(sourceName) != source) {
+			return;
+		}
+		try {
+			PropertiesFile fetchedSource = fetchSource(source);
+			synchronized (this) {
+				if (sources.get(sourceName) == source) {
+					mergeProperties(Collections.singletonList(fetchedSource));
+				}
+			}
+		} catch (RuntimeException e) {
+			metrics.recordFailure(sourceName);
+			LOG.error("Can't refresh properties source " + sourceName + ", keeping previous entries", e);
+		}
+		synchronized (pendingReloads) {
+			// stopping the watch or removing the source drops its pending refresh
+			if (pendingReloads.containsKey(sourceName) && sources.get(sourceName) == source) {
+				try {
+					scheduleRefresh(source, delayMillis);
+				} catch (RejectedExecutionException e) {
+					LOG.debug("Properties source {} refresh cancelled", sourceName);
+				}
+			}
+		}
+	}
+
+	private PropertiesFile fetchSource(PropertySource source) {
+		long startNanos = System.nanoTime();
+		Map<String, String> fetchedProperties;
+		try {
+			fetchedProperties = source.fetch();
+		} catch (IOException e) {
+			throw new RuntimeException("Can't fetch properties source " + source.getName(), e);
+		}
+		// sources may hand out maps they keep updating
+		Map<String, String> properties = new HashMap<>();
+		for (Entry<String, String> fetchedProperty : fetchedProperties.entrySet()) {
+			if (fetchedProperty.getKey() != null && fetchedProperty.getValue() != null) {
+				properties.put(fetchedProperty.getKey(), fetchedProperty.getValue());
+			}
+		}
+		return new PropertiesFile(source.getName(), null, 0, properties, System.nanoTime() - startNanos);
+	}
+
+	private ScheduledThreadPoolExecutor getReloadExecutor() {
+		synchronized (pendingReloads) {
+			if (reloadExecutor == null) {
+				ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "properties-reloader");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+				executor.setRemoveOnCancelPolicy(true);
+				reloadExecutor = executor;
+			}
+			return reloadExecutor;
+		}
+	}
+
+	/**
+	 * Reloads a changed properties file.<br>
+	 * Files whose content didn't change are skipped, files that can't be read or parsed are rejected keeping the current entries.
+	 * Properties of deleted files within watched folders are withdrawn.
+	 */
+	private synchronized void reloadProperties(String propertiesLocation) {
+		if (directoryFilesLocations.contains(propertiesLocation) && !Files.exists(FileSystems.getDefault().getPath(propertiesLocation))) {
+			withdrawProperties(propertiesLocation);
+			return;
+		}
+		PropertiesFile propertiesFile;
+		try {
+			long startNanos = System.nanoTime();
+			ByteBuffer content = readContent(propertiesLocation);
+			byte[] digest = digest(content);
+			if (Arrays.equals(digest, digests.get(propertiesLocation))) {
+				LOG.debug("Properties file {} content didn't change, skipping reload", propertiesLocation);
+				return;
+			}
+			propertiesFile = new PropertiesFile(propertiesLocation, digest, content.remaining(), PropertiesParser.parse(content, options.getCharset()),
+					System.nanoTime() - startNanos);
+		} catch (IOException | IllegalArgumentException e) {
+			metrics.recordFailure(propertiesLocation);
+			LOG.error("Can't reload properties file " + propertiesLocation + ", keeping previous entries", e);
+			return;
+		}
+		LOG.info("Reloading changed properties file {}", propertiesLocation);
+		try {
+			mergeProperties(Collections.singletonList(propertiesFile));
+		} catch (IllegalArgumentException e) {
+			metrics.recordFailure(propertiesLocation);
+			LOG.error("Can't convert or interpolate properties of file " + propertiesLocation + ", keeping previous entries", e);
+		}
+	}
+
+	/**
+	 * Withdraws the properties of a deleted file.<br>
+	 * Each withdrawn key falls back to the highest file still defining it, and is removed if there's none.
+	 */
+	private synchronized void withdrawProperties(String propertiesLocation) {
+		directoryFilesLocations.remove(propertiesLocation);
+		if (!layersByLocation.containsKey(propertiesLocation)) {
+			return;
+		}
+		LOG.info("Withdrawing deleted properties file {}", propertiesLocation);
+		try {
+			mergeProperties(Collections.<PropertiesFile> emptyList(), Collections.singleton(propertiesLocation));
+		} catch (IllegalArgumentException e) {
+			metrics.recordFailure(propertiesLocation);
+			LOG.error("Can't withdraw properties of file " + propertiesLocation + ", keeping previous entries", e);
+		}
+	}
+
+	/**
+	 * Reads and parses the provided files in parallel, then merges them in a single update.<br>
+	 * Files override each other according to their layers precedence.
+	 * If any file can't be read, parsed or converted none of them is merged.
+	 */
+	private synchronized void updateProperties(List<String> propertiesLocations) {
+		if (propertiesLocations.isEmpty()) {
+			return;
+		}
+		final CompiledProperties compiledProperties = openCompiledProperties();
+		List<PropertiesFile> propertiesFiles = new ArrayList<>();
+		if (propertiesLocations.size() == 1) {
+			propertiesFiles.add(readPropertiesFile(propertiesLocations.get(0), compiledProperties));
+		} else {
+			List<ForkJoinTask<PropertiesFile>> readTasks = new ArrayList<>();
+			for (final String propertiesLocation : propertiesLocations) {
+				readTasks.add(ForkJoinPool.commonPool().submit(new Callable<PropertiesFile>() {
+					@Override
+					public PropertiesFile call() {
+						return readPropertiesFile(propertiesLocation, compiledProperties);
+					}
+				}));
+			}
+			for (ForkJoinTask<PropertiesFile> readTask : readTasks) {
+				try {
+					propertiesFiles.add(readTask.get());
+				} catch (ExecutionException e) {
+					throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException(e);
+				}
+			}
+		}
+		try {
+			mergeProperties(propertiesFiles);
+		} catch (IllegalArgumentException e) {
+			for (String propertiesLocation : propertiesLocations) {
+				metrics.recordFailure(propertiesLocation);
+			}
+			throw new RuntimeException("Can't load properties files " + propertiesLocations, e);
+		}
+	}
+
+	/**
+	 * Reads a properties file, taking its properties from the compiled artifact if it holds a section matching the file content.
+	 */
+	private PropertiesFile readPropertiesFile(String propertiesLocation, CompiledProperties compiledProperties) {
+		try {
+			long startNanos = System.nanoTime();
+			ByteBuffer content = readContent(propertiesLocation);
+			byte[] digest = digest(content);
+			CompiledProperties.Section compiledSection = findCompiledSection(compiledProperties, propertiesLocation, digest);
+			if (compiledSection != null) {
+				return new PropertiesFile(propertiesLocation, digest, content.remaining(), compiledSection.getProperties(), compiledSection.getParsedValues(),
+						System.nanoTime() - startNanos);
+			}
+			return new PropertiesFile(propertiesLocation, digest, content.remaining(), PropertiesParser.parse(content, options.getCharset()),
+					System.nanoTime() - startNanos);
+		} catch (IOException | IllegalArgumentException e) {
+			metrics.recordFailure(propertiesLocation);
+			throw new RuntimeException("Can't load properties file " + propertiesLocation, e);
+		}
+	}
+
+	/**
+	 * @return
+	 * the compiled artifact set by options, {@code null} if unset or unusable
+	 */
+	private CompiledProperties openCompiledProperties() {
+		String compiledPropertiesLocation = options.getCompiledPropertiesLocation();
+		if (compiledPropertiesLocation == null) {
+			return null;
+		}
+		try {
+			CompiledProperties compiledProperties = CompiledProperties.open(FileSystems.getDefault().getPath(compiledPropertiesLocation));
+			if (compiledProperties == null) {
+				LOG.warn("Compiled properties {} have been written by another format version, parsing text files", compiledPropertiesLocation);
+			} else if (!compiledProperties.isCompiledWith(options.getCharset())) {
+				LOG.warn("Compiled properties {} have been parsed with another charset, parsing text files", compiledPropertiesLocation);
+				compiledProperties = null;
+			}
+			return compiledProperties;
+		} catch (IOException e) {
+			LOG.warn("Can't open compiled properties " + compiledPropertiesLocation + ", parsing text files", e);
+			return null;
+		}
+	}
+
+	private CompiledProperties.Section findCompiledSection(CompiledProperties compiledProperties, String propertiesLocation, byte[] digest) {
+		if (compiledProperties == null) {
+			return null;
+		}
+		try {
+			CompiledProperties.Section compiledSection = compiledProperties.find(digest);
+			if (compiledSection == null) {
+				LOG.debug("Properties file {} changed since compiled, parsing its text", propertiesLocation);
+			}
+			return compiledSection;
+		} catch (RuntimeException e) {
+			LOG.warn("Can't read compiled properties of file " + propertiesLocation + ", parsing its text", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the whole content of a properties file.<br>
+	 * Files larger than {@value #MAPPED_FILE_THRESHOLD} bytes are memory mapped instead of being copied to the heap.
+	 */
+	private ByteBuffer readContent(String propertiesLocation) throws IOException {
+		try (FileChannel channel = FileChannel.open(FileSystems.getDefault().getPath(propertiesLocation), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > MAPPED_FILE_THRESHOLD) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			ByteBuffer content = ByteBuffer.allocate((int) size);
+			while (content.hasRemaining() && channel.read(content) >= 0) {
+				// keep reading until the whole file has been read
+			}
+			content.flip();
+			return content;
+		}
+	}
+
+	static byte[] digest(ByteBuffer content) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+			messageDigest.update(content.duplicate());
+			return messageDigest.digest();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void mergeProperties(List<PropertiesFile> propertiesFiles) {
+		mergeProperties(propertiesFiles, Collections.<String> emptySet());
+	}
+
+	private synchronized void mergeProperties(List<PropertiesFile> propertiesFiles, Set<String> withdrawnLocations) {
+		long mergeStartNanos = System.nanoTime();
+
+		// build the layers as they'll be once updated, collecting the keys changed within them
+		List<PropertiesLayer> mergedLayers = new ArrayList<>(layers);
+		List<PropertiesLayer> updatedLayers = new ArrayList<>();
+		Set<String> layersChangedKeys = new HashSet<>();
+		for (String withdrawnLocation : withdrawnLocations) {
+			PropertiesLayer withdrawnLayer = layersByLocation.get(withdrawnLocation);
+			if (withdrawnLayer != null) {
+				mergedLayers.remove(withdrawnLayer);
+				layersChangedKeys.addAll(withdrawnLayer.getProperties().keySet());
+			}
+		}
+		for (PropertiesFile propertiesFile : propertiesFiles) {
+			PropertiesLayer layer = new PropertiesLayer(propertiesFile.location, getRank(propertiesFile.location), propertiesFile.properties);
+			int layerIndex = Collections.binarySearch(mergedLayers, layer);
+			if (layerIndex >= 0) {
+				mergedLayers.get(layerIndex).collectChangedKeys(propertiesFile.properties, layersChangedKeys);
+				mergedLayers.set(layerIndex, layer);
+			} else {
+				mergedLayers.add(-layerIndex - 1, layer);
+				layersChangedKeys.addAll(propertiesFile.properties.keySet());
+			}
+			updatedLayers.add(layer);
+		}
+		// in off-heap mode, a single layer without interpolation holds the same entries as the snapshot and reads them from its region,
+		// other layers keep the parsed properties on heap rather than a second off-heap copy
+		boolean shareSnapshot = options.getStorageMode() == StorageMode.OFF_HEAP && !options.isInterpolation() && mergedLayers.size() == 1;
+		if (!shareSnapshot) {
+			for (int i = 0; i < mergedLayers.size(); i++) {
+				PropertiesLayer unsharedLayer = mergedLayers.get(i).unshareSnapshot();
+				if (unsharedLayer != mergedLayers.get(i)) {
+					mergedLayers.set(i, unsharedLayer);
+					updatedLayers.add(unsharedLayer);
+				}
+			}
+		}
+
+		// only the changed keys get their value looked up, from the highest layer defining them
+		Map<String, String> propertiesToLoad = new HashMap<>();
+		Set<String> keysToRemove = new HashSet<>();
+		for (String changedKey : layersChangedKeys) {
+			String value = null;
+			for (int i = mergedLayers.size() - 1; i >= 0 && value == null; i--) {
+				value = mergedLayers.get(i).getProperties().get(changedKey);
+			}
+			if (value != null) {
+				propertiesToLoad.put(changedKey, value);
+			} else {
+				keysToRemove.add(changedKey);
+			}
+		}
+
+		PropertiesSnapshot previousSnapshot = snapshot;
+		PropertiesInterpolator mergedInterpolator = interpolator;
+		if (options.isInterpolation()) {
+			// only loaded properties and the dependents of loaded and removed ones get resolved
+			mergedInterpolator = interpolator.update(propertiesToLoad, keysToRemove);
+			propertiesToLoad = mergedInterpolator.resolve(propertiesToLoad, keysToRemove, previousSnapshot);
+		}
+
+		Set<String> changedKeys = new HashSet<>();
+		PropertiesSnapshot mergedSnapshot = previousSnapshot.merge(propertiesToLoad, keysToRemove, changedKeys, options.getStorageMode());
+		for (PropertiesFile propertiesFile : propertiesFiles) {
+			if (!propertiesFile.parsedValues.isEmpty()) {
+				mergedSnapshot.primeTypedValues(propertiesFile.properties, propertiesFile.parsedValues, options);
+			}
+		}
+		if (shareSnapshot) {
+			PropertiesLayer sharedLayer = mergedLayers.get(0).shareSnapshot(mergedSnapshot);
+			mergedLayers.set(0, sharedLayer);
+			updatedLayers.add(sharedLayer);
+		}
+
+		// convert changed values of fields scanned at initialization stage before publishing anything,
+		// so that a conversion failure leaves the current state untouched
+		List<PropertyInjector> changedInjectors = new ArrayList<>();
+		List<Object> convertedValues = new ArrayList<>();
+		for (String changedKey : changedKeys) {
+			List<PropertyInjector> injectors = injectionMap.get(changedKey);
+			if (injectors != null) {
+				for (PropertyInjector injector : injectors) {
+					changedInjectors.add(injector);
+					convertedValues.add(injector.convert(mergedSnapshot, options));
+				}
+			}
+		}
+
+		// publish the new snapshot
+		snapshot = mergedSnapshot;
+		interpolator = mergedInterpolator;
+		long mergeNanos = System.nanoTime() - mergeStartNanos;
+		layers = mergedLayers;
+		for (String withdrawnLocation : withdrawnLocations) {
+			layersByLocation.remove(withdrawnLocation);
+			digests.remove(withdrawnLocation);
+			metrics.removeLocation(withdrawnLocation);
+		}
+		for (PropertiesLayer updatedLayer : updatedLayers) {
+			layersByLocation.put(updatedLayer.getLocation(), updatedLayer);
+		}
+		for (PropertiesFile propertiesFile : propertiesFiles) {
+			if (propertiesFile.digest != null) {
+				digests.put(propertiesFile.location, propertiesFile.digest);
+			}
+		}
+		if (LOG.isInfoEnabled()) {
+			try {
+				String source = propertiesFiles.isEmpty() ? "withdrawal of " + withdrawnLocations
+						: propertiesFiles.size() == 1 ? propertiesFiles.get(0).location : propertiesFiles.size() + " files";
+				LOG.info("Properties updated from {}: {}", source, describeChanges(previousSnapshot, changedKeys));
+			} catch (IOException e) {
+				// can't happen with StringBuilder
+				throw new IllegalStateException(e);
+			}
+		}
+
+		notifySubscriptions(previousSnapshot, changedKeys);
+
+		// perform properties injection
+		long injectStartNanos = System.nanoTime();
+		for (int i = 0; i < changedInjectors.size(); i++) {
+			changedInjectors.get(i).inject(convertedValues.get(i));
+		}
+		long injectNanos = System.nanoTime() - injectStartNanos;
+
+		for (PropertiesFile propertiesFile : propertiesFiles) {
+			boolean changed = !changedKeys.isEmpty() && (propertiesFiles.size() == 1 || !Collections.disjoint(propertiesFile.properties.keySet(), changedKeys));
+			metrics.recordLoad(propertiesFile.location, propertiesFile.bytesRead, propertiesFile.properties.size(), propertiesFile.parseNanos, mergeNanos,
+					injectNanos, changed);
+		}
+	}
+
+	private void notifySubscriptions(PropertiesSnapshot previousSnapshot, Set<String> changedKeys) {
+		if (subscriptions.isEmpty() || changedKeys.isEmpty()) {
+			return;
+		}
+		List<PropertyChangeEvent> changes = new ArrayList<>(changedKeys.size());
+		for (String changedKey : changedKeys) {
+			changes.add(new PropertyChangeEvent(changedKey, previousSnapshot.get(changedKey), snapshot.get(changedKey)));
+		}
+		Executor executor = options.getListenersExecutor();
+		if (executor == null) {
+			executor = getDefaultListenersExecutor();
+		}
+		for (PropertiesSubscription subscription : subscriptions) {
+			subscription.enqueue(changes, executor);
+		}
+	}
+
+	private synchronized Executor getDefaultListenersExecutor() {
+		if (defaultListenersExecutor == null) {
+			defaultListenersExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "properties-listeners");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return defaultListenersExecutor;
+	}
+
+	/**
+	 * Subscribes a listener to the changes of a single property.
+	 * 
+	 * @param key
+	 * property key
+	 * @param listener
+	 * listener to be notified
+	 * 
+	 * @return
+	 * the subscription, to be used for unsubscribing
+	 */
+	public PropertiesSubscription subscribe(String key, PropertiesChangeListener listener) {
+		return subscribe(PropertiesSubscription.byKey(this, key, listener));
+	}
+
+	/**
+	 * Subscribes a listener to the changes of properties whose keys start with the provided prefix.
+	 * 
+	 * @param keyPrefix
+	 * properties keys prefix
+	 * @param listener
+	 * listener to be notified
+	 * 
+	 * @return
+	 * the subscription, to be used for unsubscribing
+	 */
+	public PropertiesSubscription subscribeByPrefix(String keyPrefix, PropertiesChangeListener listener) {
+		return subscribe(PropertiesSubscription.byPrefix(this, keyPrefix, listener));
+	}
+
+	/**
+	 * Subscribes a listener to the changes of properties whose keys match the provided regex.
+	 * 
+	 * @param keyPattern
+	 * regular expression to be matched by properties keys
+	 * @param listener
+	 * listener to be notified
+	 * 
+	 * @return
+	 * the subscription, to be used for unsubscribing
+	 */
+	public PropertiesSubscription subscribeByPattern(String keyPattern, PropertiesChangeListener listener) {
+		return subscribe(PropertiesSubscription.byPattern(this, keyPattern, listener));
+	}
+
+	private PropertiesSubscription subscribe(PropertiesSubscription subscription) {
+		subscriptions.add(subscription);
+		return subscription;
+	}
+
+	void unsubscribe(PropertiesSubscription subscription) {
+		subscriptions.remove(subscription);
+	}
+
+	/**
+	 * Stops the thread watching for file changes, along with the refreshes of periodic sources.
+	 */
+	public synchronized void stopWatching() {
+		if (watcher != null) {
+			try {
+				watcher.close();
+				LOG.info("Properties monitoring stopped");
+			} catch (IOException e) {
+				LOG.error("Failed stopping properties monitor " + watcher, e);
+			}
+			watcher = null;
+		}
+		synchronized (pendingReloads) {
+			if (reloadExecutor != null) {
+				reloadExecutor.shutdownNow();
+				reloadExecutor = null;
+			}
+			if (fetchExecutor != null) {
+				fetchExecutor.shutdownNow();
+				fetchExecutor = null;
+			}
+			pendingReloads.clear();
+		}
+	}
+
+	/**
+	 * Resets the manager to its initial state. 
+	 */
+	public synchronized void reset() {
+		stopWatching();
+		snapshot = PropertiesSnapshot.empty(this, snapshot.getGeneration() + 1);
+		digests.clear();
+		layers = new ArrayList<>();
+		layersByLocation.clear();
+		locationRanks.clear();
+		directoryFilesLocations.clear();
+		sources.clear();
+		interpolator = PropertiesInterpolator.EMPTY;
+		subscriptions.clear();
+		metrics.clear();
+		accessCounters.clear();
+	}
+
+	/**
+	 * Resets the manager, stops its listeners thread and unregisters its MBeans.<br>
+	 * Managers no longer needed should be closed, the default one is never closed.
+	 */
+	@Override
+	public synchronized void close() {
+		reset();
+		metrics.unregister();
+		if (defaultListenersExecutor != null) {
+			defaultListenersExecutor.shutdown();
+			defaultListenersExecutor = null;
+		}
+	}
+
+	int getPropertiesCount() {
+		return snapshot.asMap().size();
+	}
+
+	int getWatchedFilesCount() {
+		PropertiesWatcher watcher = this.watcher;
+		return watcher != null ? watcher.getWatchedFilesCount() : 0;
+	}
+
+	int getWatcherThreadsCount() {
+		ScheduledThreadPoolExecutor reloadExecutor = this.reloadExecutor;
+		return (watcher != null ? 1 : 0) + (reloadExecutor != null ? reloadExecutor.getPoolSize() : 0);
+	}
+
+	int getSubscriptionsCount() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 * property key
+	 * 
+	 * @return
+	 * property value as a plain {@code String}
+	 */
+	public String getProperty(String key) {
+		return snapshot.getProperty(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Long}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code Long}.
+	 * 
+	 */
+	public Long getLong(String key) throws NumberFormatException {
+		return snapshot.getLong(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Integer}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code Integer}.
+	 * 
+	 */
+	public Integer getInteger(String key) throws NumberFormatException {
+		return snapshot.getInteger(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code BigDecimal}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code BigDecimal}.
+	 * 
+	 */
+	public BigDecimal getBigDecimal(String key) throws NumberFormatException {
+		return snapshot.getBigDecimal(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Float}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code Float}.
+	 * 
+	 */
+	public Float getFloat(String key) throws NumberFormatException {
+		return snapshot.getFloat(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Double}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code Double}.
+	 * 
+	 */
+	public Double getDouble(String key) throws NumberFormatException {
+		return snapshot.getDouble(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code long}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code long}.
+	 * 
+	 */
+	public long getLongValue(String key) throws NumberFormatException {
+		return snapshot.getLongValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code long}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code long}.
+	 * 
+	 */
+	public long getLongValue(String key, long defaultValue) throws NumberFormatException {
+		return snapshot.getLongValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code int}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code int}.
+	 * 
+	 */
+	public int getIntValue(String key) throws NumberFormatException {
+		return snapshot.getIntValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code int}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code int}.
+	 * 
+	 */
+	public int getIntValue(String key, int defaultValue) throws NumberFormatException {
+		return snapshot.getIntValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code float}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code float}.
+	 * 
+	 */
+	public float getFloatValue(String key) throws NumberFormatException {
+		return snapshot.getFloatValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code float}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code float}.
+	 * 
+	 */
+	public float getFloatValue(String key, float defaultValue) throws NumberFormatException {
+		return snapshot.getFloatValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code double}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code double}.
+	 * 
+	 */
+	public double getDoubleValue(String key) throws NumberFormatException {
+		return snapshot.getDoubleValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code double}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code double}.
+	 * 
+	 */
+	public double getDoubleValue(String key, double defaultValue) throws NumberFormatException {
+		return snapshot.getDoubleValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Boolean}, {@code null} if the property is missing
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public Boolean getBoolean(String key) throws IllegalArgumentException {
+		return snapshot.getBoolean(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code boolean}
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property is missing or its value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public boolean getBooleanValue(String key) throws IllegalArgumentException {
+		return snapshot.getBooleanValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code boolean}
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public boolean getBooleanValue(String key, boolean defaultValue) throws IllegalArgumentException {
+		return snapshot.getBooleanValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Date}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code Date} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public Date getDate(String key) throws IllegalArgumentException {
+		return snapshot.getDate(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Instant}, using the system default time zone if the value doesn't define one
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code Instant} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public Instant getInstant(String key) throws IllegalArgumentException {
+		return snapshot.getInstant(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code LocalDate}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code LocalDate} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public LocalDate getLocalDate(String key) throws IllegalArgumentException {
+		return snapshot.getLocalDate(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code LocalDateTime}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code LocalDateTime} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public LocalDateTime getLocalDateTime(String key) throws IllegalArgumentException {
+		return snapshot.getLocalDateTime(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code ZonedDateTime}, using the system default time zone if the value doesn't define one
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code ZonedDateTime} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public ZonedDateTime getZonedDateTime(String key) throws IllegalArgumentException {
+		return snapshot.getZonedDateTime(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Duration}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as an ISO-8601 {@code Duration}, such as {@code PT30S}.
+	 * 
+	 * @see 
+	 * Duration#parse(CharSequence)
+	 */
+	public Duration getDuration(String key) throws IllegalArgumentException {
+		return snapshot.getDuration(key);
+	}
+
+	/**
+	 * @return
+	 * a read-only view of the current set of properties
+	 */
+	public Map<String, String> getProperties() {
+		return snapshot.getProperties();
+	}
+
+	/**
+	 * Returns a subset of properties whose keys match the provided regex.<br>
+	 * Compiled regexes are cached and results are computed once until the next properties update.
+	 * 
+	 * @param keyPattern
+	 * regular expression to be matched by properties keys
+	 * 
+	 * @return
+	 * a read-only map of the matching properties
+	 */
+	public Map<String, String> getProperties(String keyPattern) {
+		return snapshot.getProperties(keyPattern);
+	}
+
+	/**
+	 * Returns a subset of properties whose keys start with the provided prefix.
+	 * 
+	 * @param keyPrefix
+	 * properties keys prefix
+	 * 
+	 * @return
+	 * a read-only map of the matching properties, sorted by key
+	 */
+	public SortedMap<String, String> getPropertiesByPrefix(String keyPrefix) {
+		return snapshot.getPropertiesByPrefix(keyPrefix);
+	}
+
+	/**
+	 * Returns a subset of properties whose keys are within the provided range.
+	 * 
+	 * @param fromKey
+	 * lowest key, inclusive
+	 * @param toKey
+	 * highest key, exclusive
+	 * 
+	 * @return
+	 * a read-only map of the matching properties, sorted by key
+	 */
+	public SortedMap<String, String> getPropertiesByRange(String fromKey, String toKey) {
+		return snapshot.getPropertiesByRange(fromKey, toKey);
+	}
+
+	/**
+	 * Returns a view of properties whose keys start with the provided prefix, where keys are stripped of the prefix:<br><br>
+	 * {@code getPropertiesView("tenant1.").get("timeout")} returns the value of {@code tenant1.timeout}<br><br>
+	 * The view doesn't copy any entry and reflects the properties at the time of invocation.
+	 * 
+	 * @param keyPrefix
+	 * properties keys prefix
+	 * 
+	 * @return
+	 * a read-only view of the matching properties
+	 */
+	public Map<String, String> getPropertiesView(String keyPrefix) {
+		return snapshot.getPropertiesView(keyPrefix);
+	}
+
+	/**
+	 * Returns the most read properties since {@link PropertiesStoreOptions#setAccessTracking(boolean) accessTracking} has been enabled.<br>
+	 * Only reads of single properties by {@link #getProperty(String)} and the typed getters, of either the manager or its snapshots, are counted, 
+	 * counts are estimates unless {@link PropertiesStoreOptions#setAccessSamplingInterval(int) accessSamplingInterval} is 1.
+	 * 
+	 * @param count
+	 * maximum number of properties to be returned
+	 * 
+	 * @return
+	 * a read-only map of properties keys and estimated reads count, sorted by decreasing count
+	 */
+	public Map<String, Long> getMostReadProperties(int count) {
+		return accessCounters.getMostRead(count);
+	}
+
+	/**
+	 * Returns the keys of current properties never read since {@link PropertiesStoreOptions#setAccessTracking(boolean) accessTracking}
+	 * has been enabled.<br>
+	 * Only reads of single properties by {@link #getProperty(String)} and the typed getters, of either the manager or its snapshots, are counted.
+	 * 
+	 * @return
+	 * a read-only sorted set of properties keys
+	 */
+	public SortedSet<String> getUnreadProperties() {
+		return accessCounters.getUnread(snapshot.asMap().keySet());
+	}
+
+	/**
+	 * Clears the reads count of every property.
+	 */
+	public void resetAccessCounters() {
+		accessCounters.clear();
+	}
+
+	void recordAccess(String key, PropertiesSnapshot snapshot) {
+		PropertiesStoreOptions options = this.options;
+		if (options.isAccessTracking()) {
+			accessCounters.record(key, snapshot, options.getAccessSamplingInterval());
+		}
+	}
+
+	/**
+	 * Returns the current properties as an immutable snapshot.<br>
+	 * Reads from the returned snapshot are consistent with each other whatever reloads happen meanwhile, and cost the same as reads from
+	 * the manager.
+	 * 
+	 * @return
+	 * the current snapshot
+	 */
+	public PropertiesSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * @return
+	 * the generation of the current snapshot
+	 * 
+	 * @see PropertiesSnapshot#getGeneration()
+	 */
+	public long getGeneration() {
+		return snapshot.getGeneration();
+	}
+
+	static Pattern compileKeyPattern(String keyPattern) {
+		Pattern compiledKeyPattern = KEY_PATTERNS.get(keyPattern);
+		if (compiledKeyPattern == null) {
+			compiledKeyPattern = Pattern.compile(keyPattern);
+			if (KEY_PATTERNS.size() >= MAX_CACHED_KEY_PATTERNS) {
+				KEY_PATTERNS.clear();
+			}
+			KEY_PATTERNS.put(keyPattern, compiledKeyPattern);
+		}
+		return compiledKeyPattern;
+	}
+
+	public PropertiesStoreOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(PropertiesStoreOptions options) {
+		this.options = options;
+	}
+
+	public long getPollInterval() {
+		return options.getPollInterval();
+	}
+
+	/**
+	 * Returns a string representation of the current properties
+	 * in the form of a set of entries, enclosed in braces and separated
+	 * by the ASCII characters "{@code ,} " (comma and space).<br>
+	 * Each entry is rendered as the key, an equals sign {@code =}, and the
+	 * associated string value.<br>
+	 * If the key matches the {@code config.obfuscatedPropertyPattern} its value will be replaced by the {@code config.obfuscatedPropertyPlaceholder}.<br>
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setObfuscatedPropertyPattern(String)
+	 * @see 
+	 * PropertiesStoreOptions#setObfuscatedPropertyPlaceholder(String)
+	 *
+	 * @return 
+	 * a string representation of the current properties
+	 */
+	public String toText() {
+		StringBuilder text = new StringBuilder();
+		try {
+			toText(text);
+		} catch (IOException e) {
+			// can't happen with StringBuilder
+			throw new IllegalStateException(e);
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Writes the string representation of the current properties to the provided {@link Appendable}, 
+	 * without building it in memory first.
+	 * 
+	 * @param appendable
+	 * target of the string representation
+	 * 
+	 * @throws IOException
+	 * if the {@code appendable} can't be written
+	 * 
+	 * @see #toText()
+	 */
+	public void toText(Appendable appendable) throws IOException {
+		appendable.append('{');
+		boolean first = true;
+		for (Entry<String, String> property : snapshot.asMap().entrySet()) {
+			if (!first) {
+				appendable.append(", ");
+			}
+			appendProperty(appendable, property.getKey(), property.getValue());
+			first = false;
+		}
+		appendable.append('}');
+	}
+
+	private void appendProperty(Appendable appendable, String key, String value) throws IOException {
+		appendable.append(key).append('=').append(options.isObfuscatedProperty(key) ? options.getObfuscatedPropertyPlaceholder() : value);
+	}
+
+	/**
+	 * Describes the properties changed by an update, obfuscating sensitive values.
+	 */
+	private String describeChanges(PropertiesSnapshot previousSnapshot, Set<String> changedKeys) throws IOException {
+		StringBuilder added = new StringBuilder();
+		StringBuilder changed = new StringBuilder();
+		StringBuilder removed = new StringBuilder();
+		int addedCount = 0;
+		int changedCount = 0;
+		int removedCount = 0;
+		for (String changedKey : changedKeys) {
+			String value = snapshot.get(changedKey);
+			if (value == null) {
+				removed.append(removedCount++ > 0 ? ", " : "").append(changedKey);
+			} else if (previousSnapshot.get(changedKey) == null) {
+				appendProperty(added.append(addedCount++ > 0 ? ", " : ""), changedKey, value);
+			} else {
+				appendProperty(changed.append(changedCount++ > 0 ? ", " : ""), changedKey, value);
+			}
+		}
+		return addedCount + " added {" + added + "}, " + changedCount + " changed {" + changed + "}, " + removedCount + " removed [" + removed
+				+ "], " + snapshot.asMap().size() + " total";
+	}
+
+	/**
+	 * Parsed content of a properties file.
+	 */
+	private final class PropertiesFile {
+
+		private final String location;
+		private final byte[] digest;
+		private final int bytesRead;
+		private final Map<String, String> properties;
+		// values parsed at build time, for files loaded from compiled properties
+		private final Map<String, Object> parsedValues;
+		private final long parseNanos;
+
+		private PropertiesFile(String location, byte[] digest, int bytesRead, Map<String, String> properties, long parseNanos) {
+			this(location, digest, bytesRead, properties, Collections.<String, Object> emptyMap(), parseNanos);
+		}
+
+		private PropertiesFile(String location, byte[] digest, int bytesRead, Map<String, String> properties, Map<String, Object> parsedValues,
+				long parseNanos) {
+			this.location = location;
+			this.digest = digest;
+			this.bytesRead = bytesRead;
+			this.properties = properties;
+			this.parsedValues = parsedValues;
+			this.parseNanos = parseNanos;
+		}
+
+	}
+
+}
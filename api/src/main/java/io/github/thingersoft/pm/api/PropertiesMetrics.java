@@ -0,0 +1,286 @@
+package io.github.thingersoft.pm.api;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects {@link PropertiesManager} load figures and exposes them through JMX.<br>
+ * Recording only updates adders and volatile fields, so that it takes no lock and costs nothing measurable to loads.
+ * Reads never record anything.
+ */
+final class PropertiesMetrics implements PropertiesStoreMXBean {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PropertiesMetrics.class);
+
+	private final PropertiesManager manager;
+	private final String objectName;
+	private final String locationObjectNameSuffix;
+	private final boolean monitored;
+	private final ConcurrentMap<String, LocationMetrics> locations = new ConcurrentHashMap<>();
+	private final LongAdder reloads = new LongAdder();
+	private final LongAdder failedReloads = new LongAdder();
+	private volatile boolean registered = false;
+
+	/**
+	 * @param manager
+	 * manager whose figures are collected
+	 * @param storeName
+	 * value of the {@code store} key of MBeans names, {@code null} for the default manager
+	 * @param monitored
+	 * whether figures are to be exposed through JMX
+	 */
+	PropertiesMetrics(PropertiesManager manager, String storeName, boolean monitored) {
+		this.manager = manager;
+		this.monitored = monitored;
+		String storeKey = storeName != null ? ",store=" + ObjectName.quote(storeName) : "";
+		objectName = OBJECT_NAME + storeKey;
+		locationObjectNameSuffix = storeKey;
+	}
+
+	/**
+	 * Registers the store MBean on the platform MBean server, once.
+	 */
+	void register() {
+		if (monitored && !registered) {
+			registered = true;
+			register(objectName, this);
+		}
+	}
+
+	/**
+	 * Unregisters every MBean.
+	 */
+	void unregister() {
+		clear();
+		if (registered) {
+			registered = false;
+			unregister(objectName);
+		}
+	}
+
+	/**
+	 * Records a successful load of a properties file.
+	 *
+	 * @param location
+	 * properties file location
+	 * @param bytesRead
+	 * file size
+	 * @param keysCount
+	 * number of properties defined by the file
+	 * @param parseNanos
+	 * reading and parsing time
+	 * @param mergeNanos
+	 * merging and conversion time of the update including the file
+	 * @param injectNanos
+	 * injection time of the update including the file
+	 * @param changed
+	 * whether the file changed any property
+	 */
+	void recordLoad(String location, long bytesRead, int keysCount, long parseNanos, long mergeNanos, long injectNanos, boolean changed) {
+		LocationMetrics locationMetrics = getLocationMetrics(location);
+		locationMetrics.reloads.increment();
+		locationMetrics.lastBytesRead = bytesRead;
+		locationMetrics.keysCount = keysCount;
+		locationMetrics.lastParseNanos = parseNanos;
+		locationMetrics.lastMergeNanos = mergeNanos;
+		locationMetrics.lastInjectNanos = injectNanos;
+		if (changed) {
+			locationMetrics.lastChangeMillis = System.currentTimeMillis();
+		}
+		reloads.increment();
+	}
+
+	/**
+	 * Records a rejected load of a properties file.
+	 *
+	 * @param location
+	 * properties file location
+	 */
+	void recordFailure(String location) {
+		getLocationMetrics(location).failedReloads.increment();
+		failedReloads.increment();
+	}
+
+	/**
+	 * Unregisters the MBean of a location no longer loaded and discards its figures.
+	 *
+	 * @param location
+	 * properties file location
+	 */
+	void removeLocation(String location) {
+		if (locations.remove(location) != null && registered) {
+			unregister(getLocationObjectName(location));
+		}
+	}
+
+	/**
+	 * Unregisters locations MBeans and clears every figure.
+	 */
+	void clear() {
+		for (String location : locations.keySet()) {
+			unregister(getLocationObjectName(location));
+		}
+		locations.clear();
+		reloads.reset();
+		failedReloads.reset();
+	}
+
+	private LocationMetrics getLocationMetrics(String location) {
+		LocationMetrics locationMetrics = locations.get(location);
+		if (locationMetrics == null) {
+			LocationMetrics newLocationMetrics = new LocationMetrics(location);
+			locationMetrics = locations.putIfAbsent(location, newLocationMetrics);
+			if (locationMetrics == null) {
+				locationMetrics = newLocationMetrics;
+				if (registered) {
+					register(getLocationObjectName(location), locationMetrics);
+				}
+			}
+		}
+		return locationMetrics;
+	}
+
+	private String getLocationObjectName(String location) {
+		return PropertiesLocationMXBean.OBJECT_NAME_PREFIX + ObjectName.quote(location) + locationObjectNameSuffix;
+	}
+
+	private static void register(String objectName, Object mbean) {
+		try {
+			MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if (mbeanServer.isRegistered(name)) {
+				// e.g. another class loader holding its own copy of the library
+				LOG.debug("MBean {} already registered", objectName);
+				return;
+			}
+			mbeanServer.registerMBean(mbean, name);
+		} catch (JMException | SecurityException e) {
+			LOG.warn("Can't register MBean " + objectName, e);
+		}
+	}
+
+	private static void unregister(String objectName) {
+		try {
+			MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if (mbeanServer.isRegistered(name)) {
+				mbeanServer.unregisterMBean(name);
+			}
+		} catch (JMException | SecurityException e) {
+			LOG.warn("Can't unregister MBean " + objectName, e);
+		}
+	}
+
+	@Override
+	public int getPropertiesCount() {
+		return manager.getPropertiesCount();
+	}
+
+	@Override
+	public int getLocationsCount() {
+		return locations.size();
+	}
+
+	@Override
+	public int getWatchedFilesCount() {
+		return manager.getWatchedFilesCount();
+	}
+
+	@Override
+	public int getWatcherThreadsCount() {
+		return manager.getWatcherThreadsCount();
+	}
+
+	@Override
+	public int getSubscriptionsCount() {
+		return manager.getSubscriptionsCount();
+	}
+
+	@Override
+	public long getReloadsCount() {
+		return reloads.sum();
+	}
+
+	@Override
+	public long getFailedReloadsCount() {
+		return failedReloads.sum();
+	}
+
+	/**
+	 * Figures of a single properties file, written by the thread merging updates.
+	 */
+	private static final class LocationMetrics implements PropertiesLocationMXBean {
+
+		private final String location;
+		private final LongAdder reloads = new LongAdder();
+		private final LongAdder failedReloads = new LongAdder();
+		private volatile long lastParseNanos;
+		private volatile long lastMergeNanos;
+		private volatile long lastInjectNanos;
+		private volatile long lastBytesRead;
+		private volatile int keysCount;
+		private volatile long lastChangeMillis = -1;
+
+		private LocationMetrics(String location) {
+			this.location = location;
+		}
+
+		@Override
+		public String getLocation() {
+			return location;
+		}
+
+		@Override
+		public long getReloadsCount() {
+			return reloads.sum();
+		}
+
+		@Override
+		public long getFailedReloadsCount() {
+			return failedReloads.sum();
+		}
+
+		@Override
+		public long getLastParseMicros() {
+			return TimeUnit.NANOSECONDS.toMicros(lastParseNanos);
+		}
+
+		@Override
+		public long getLastMergeMicros() {
+			return TimeUnit.NANOSECONDS.toMicros(lastMergeNanos);
+		}
+
+		@Override
+		public long getLastInjectMicros() {
+			return TimeUnit.NANOSECONDS.toMicros(lastInjectNanos);
+		}
+
+		@Override
+		public long getLastBytesRead() {
+			return lastBytesRead;
+		}
+
+		@Override
+		public int getKeysCount() {
+			return keysCount;
+		}
+
+		@Override
+		public long getMillisSinceLastChange() {
+			long lastChangeMillis = this.lastChangeMillis;
+			return lastChangeMillis < 0 ? -1 : System.currentTimeMillis() - lastChangeMillis;
+		}
+
+	}
+
+}
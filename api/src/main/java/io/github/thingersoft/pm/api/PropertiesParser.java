@@ -0,0 +1,262 @@
+package io.github.thingersoft.pm.api;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses properties files content following the same rules of {@link java.util.Properties#load(java.io.Reader)}:
+ * comment lines, line continuations, key/value separators and escape sequences.<br>
+ * Content is scanned as bytes straight from the provided buffer, which may be memory mapped, and each key and value is decoded once.
+ * Since every syntax character is ASCII, this works both for ISO-8859-1, matching {@link java.util.Properties#load(java.io.InputStream)},
+ * and for UTF-8 content.
+ */
+final class PropertiesParser {
+
+	private final ByteBuffer content;
+	private final Charset charset;
+	private final int limit;
+	private int position;
+	// logical line being parsed, made of one or more natural lines
+	private byte[] line = new byte[256];
+	private int lineLength;
+
+	private PropertiesParser(ByteBuffer content, Charset charset) {
+		this.content = content;
+		this.charset = charset;
+		position = content.position();
+		limit = content.limit();
+	}
+
+	/**
+	 * Parses properties from the remaining content of the provided buffer, without moving its position.
+	 *
+	 * @param content
+	 * properties file content
+	 * @param charset
+	 * content encoding
+	 *
+	 * @return
+	 * the parsed properties, later duplicate keys override earlier ones
+	 *
+	 * @throws IllegalArgumentException
+	 * if a malformed \\uxxxx escape sequence is found
+	 */
+	static Map<String, String> parse(ByteBuffer content, Charset charset) throws IllegalArgumentException {
+		return new PropertiesParser(content, charset).parse();
+	}
+
+	private Map<String, String> parse() {
+		Map<String, String> properties = new HashMap<>();
+		while (readLine()) {
+			parseLine(properties);
+		}
+		return properties;
+	}
+
+	/**
+	 * Reads the next logical line into {@link #line}, skipping blank and comment lines.<br>
+	 * Mirrors the line reader of {@link java.util.Properties}, corner cases included.
+	 *
+	 * @return
+	 * {@code false} when there are no more lines
+	 */
+	private boolean readLine() {
+		lineLength = 0;
+		boolean skipWhiteSpace = true;
+		boolean appendedLineBegin = false;
+		boolean precedingBackslash = false;
+		while (true) {
+			if (position >= limit) {
+				return endLine(precedingBackslash);
+			}
+			byte b = content.get(position++);
+
+			if (skipWhiteSpace) {
+				if (b == ' ' || b == '\t' || b == '\f') {
+					continue;
+				}
+				if (!appendedLineBegin && (b == '\r' || b == '\n')) {
+					continue;
+				}
+				skipWhiteSpace = false;
+				appendedLineBegin = false;
+			}
+			if (lineLength == 0 && (b == '#' || b == '!')) {
+				if (!skipComment()) {
+					return false;
+				}
+				skipWhiteSpace = true;
+				continue;
+			}
+
+			if (b != '\n' && b != '\r') {
+				append(b);
+				precedingBackslash = b == '\\' ? !precedingBackslash : false;
+			} else if (lineLength == 0) {
+				skipWhiteSpace = true;
+			} else if (position >= limit) {
+				return endLine(precedingBackslash);
+			} else if (precedingBackslash) {
+				// a backslash at the end of a natural line joins the next one, leading whitespace excluded
+				lineLength--;
+				skipWhiteSpace = true;
+				appendedLineBegin = true;
+				precedingBackslash = false;
+				if (b == '\r' && content.get(position) == '\n') {
+					position++;
+				}
+			} else {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Completes the last logical line once the content is over.
+	 */
+	private boolean endLine(boolean precedingBackslash) {
+		if (lineLength == 0) {
+			return false;
+		}
+		if (precedingBackslash) {
+			lineLength--;
+		}
+		return true;
+	}
+
+	/**
+	 * Skips the rest of a comment line.
+	 *
+	 * @return
+	 * {@code false} if the content ended before a line terminator
+	 */
+	private boolean skipComment() {
+		while (position < limit) {
+			byte b = content.get(position++);
+			if (b == '\n' || b == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void append(byte b) {
+		if (lineLength == line.length) {
+			byte[] grownLine = new byte[line.length * 2];
+			System.arraycopy(line, 0, grownLine, 0, lineLength);
+			line = grownLine;
+		}
+		line[lineLength++] = b;
+	}
+
+	private void parseLine(Map<String, String> properties) {
+		int keyLength = 0;
+		int valueStart = lineLength;
+		boolean hasSeparator = false;
+		boolean precedingBackslash = false;
+		boolean keyEscaped = false;
+		while (keyLength < lineLength) {
+			byte b = line[keyLength];
+			if ((b == '=' || b == ':') && !precedingBackslash) {
+				valueStart = keyLength + 1;
+				hasSeparator = true;
+				break;
+			} else if ((b == ' ' || b == '\t' || b == '\f') && !precedingBackslash) {
+				valueStart = keyLength + 1;
+				break;
+			}
+			if (b == '\\') {
+				keyEscaped = true;
+				precedingBackslash = !precedingBackslash;
+			} else {
+				precedingBackslash = false;
+			}
+			keyLength++;
+		}
+		while (valueStart < lineLength) {
+			byte b = line[valueStart];
+			if (b != ' ' && b != '\t' && b != '\f') {
+				if (!hasSeparator && (b == '=' || b == ':')) {
+					hasSeparator = true;
+				} else {
+					break;
+				}
+			}
+			valueStart++;
+		}
+		String key = decode(0, keyLength, keyEscaped);
+		String value = decode(valueStart, lineLength, indexOfBackslash(valueStart) >= 0);
+		properties.put(key, value);
+	}
+
+	private int indexOfBackslash(int from) {
+		for (int i = from; i < lineLength; i++) {
+			if (line[i] == '\\') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private String decode(int from, int to, boolean escaped) {
+		String decoded = new String(line, from, to - from, charset);
+		return escaped ? unescape(decoded) : decoded;
+	}
+
+	private static String unescape(String escaped) {
+		StringBuilder unescaped = new StringBuilder(escaped.length());
+		int length = escaped.length();
+		int i = 0;
+		while (i < length) {
+			char c = escaped.charAt(i++);
+			if (c != '\\') {
+				unescaped.append(c);
+				continue;
+			}
+			if (i == length) {
+				// a lone trailing backslash is dropped
+				break;
+			}
+			c = escaped.charAt(i++);
+			switch (c) {
+			case 'u':
+				if (i + 4 > length) {
+					throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+				}
+				int codePoint = 0;
+				for (int digit = 0; digit < 4; digit++) {
+					c = escaped.charAt(i++);
+					if (c >= '0' && c <= '9') {
+						codePoint = (codePoint << 4) + c - '0';
+					} else if (c >= 'a' && c <= 'f') {
+						codePoint = (codePoint << 4) + 10 + c - 'a';
+					} else if (c >= 'A' && c <= 'F') {
+						codePoint = (codePoint << 4) + 10 + c - 'A';
+					} else {
+						throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+					}
+				}
+				unescaped.append((char) codePoint);
+				break;
+			case 't':
+				unescaped.append('\t');
+				break;
+			case 'r':
+				unescaped.append('\r');
+				break;
+			case 'n':
+				unescaped.append('\n');
+				break;
+			case 'f':
+				unescaped.append('\f');
+				break;
+			default:
+				unescaped.append(c);
+			}
+		}
+		return unescaped.toString();
+	}
+
+}
@@ -0,0 +1,905 @@
+package io.github.thingersoft.pm.api;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+import io.github.thingersoft.pm.api.data.PropertiesStoreOptions;
+import io.github.thingersoft.pm.api.data.StorageMode;
+import io.github.thingersoft.pm.api.data.SupportedTypes;
+
+/**
+ * Immutable state of a {@link PropertiesManager}.<br>
+ * A manager never modifies a published snapshot: each update that changes any property builds a new one, numbered by an increasing
+ * generation, and swaps it in a single step, so readers don't need any locking and never observe a partially merged file.<br>
+ * Reading related properties from the same snapshot guarantees they all come from the same update:<br><br>
+ * {@code PropertiesSnapshot snapshot = PropertiesStore.getSnapshot();}<br>
+ * {@code connect(snapshot.getProperty("db.host"), snapshot.getIntValue("db.port"));}<br><br>
+ * Typed values are converted using the current options of the owning manager.
+ */
+public final class PropertiesSnapshot {
+
+	private static final int MAX_MEMOIZED_QUERIES = 1024;
+
+	private final PropertiesManager manager;
+	private final long generation;
+	private final Map<String, String> properties;
+	// same entries of properties, possibly an overlay over the previous snapshot ones
+	private final Map<String, String> entries;
+
+	// built once on first range query, then carried over by merges applying only the changed keys while off-heap entries stay in place
+	private volatile SortedPropertiesIndex sortedProperties;
+	private final Object sortedPropertiesLock = new Object();
+	private final ConcurrentMap<String, Map<String, String>> patternQueries = new ConcurrentHashMap<>();
+	// converted values, discarded whenever the date pattern or locale changes
+	private volatile TypedValues typedValues;
+
+	private PropertiesSnapshot(PropertiesManager manager, long generation, Map<String, String> properties, SortedPropertiesIndex sortedProperties) {
+		this.manager = manager;
+		this.generation = generation;
+		this.properties = Collections.unmodifiableMap(properties);
+		entries = properties;
+		this.sortedProperties = sortedProperties;
+	}
+
+	/**
+	 * @param manager
+	 * owning manager
+	 * @param generation
+	 * snapshot generation
+	 * 
+	 * @return
+	 * a snapshot holding no properties
+	 */
+	static PropertiesSnapshot empty(PropertiesManager manager, long generation) {
+		return new PropertiesSnapshot(manager, generation, new HashMap<String, String>(), null);
+	}
+
+	/**
+	 * Builds a new snapshot made of the current entries overridden by the provided ones, numbered by the next generation.<br>
+	 * Values that didn't change keep their current instance, the current snapshot itself is returned when nothing changed.
+	 * Only the changed entries are copied, as an overlay over the current ones.
+	 *
+	 * @param propertiesToMerge
+	 * entries to be merged
+	 * @param keysToRemove
+	 * keys of the entries to be removed
+	 * @param changedKeys
+	 * collects the keys whose value changed
+	 * @param storageMode
+	 * where the merged entries are to be kept
+	 *
+	 * @return
+	 * the merged snapshot
+	 */
+	PropertiesSnapshot merge(Map<String, String> propertiesToMerge, Set<String> keysToRemove, Set<String> changedKeys, StorageMode storageMode) {
+		Map<String, String> changedProperties = new HashMap<>();
+		for (Entry<String, String> property : propertiesToMerge.entrySet()) {
+			String key = property.getKey();
+			String value = property.getValue();
+			String currentValue = properties.get(key);
+			if (value.equals(currentValue)) {
+				continue;
+			}
+			changedProperties.put(key, value);
+			changedKeys.add(key);
+		}
+		Set<String> removedKeys = new HashSet<>();
+		for (String key : keysToRemove) {
+			if (properties.containsKey(key)) {
+				removedKeys.add(key);
+				changedKeys.add(key);
+			}
+		}
+
+		boolean offHeap = storageMode == StorageMode.OFF_HEAP;
+		boolean storedOffHeap = OverlayProperties.getBase(entries) instanceof OffHeapProperties;
+		if (changedProperties.isEmpty() && removedKeys.isEmpty() && offHeap == storedOffHeap) {
+			return this;
+		}
+		Map<String, String> mergedEntries;
+		if (offHeap != storedOffHeap) {
+			// storage mode switch, every entry gets copied
+			Map<String, String> mergedProperties = new HashMap<>(entries);
+			mergedProperties.putAll(changedProperties);
+			mergedProperties.keySet().removeAll(removedKeys);
+			mergedEntries = offHeap ? OffHeapProperties.of(mergedProperties) : mergedProperties;
+		} else {
+			mergedEntries = OverlayProperties.merge(entries, changedProperties, removedKeys);
+		}
+		SortedPropertiesIndex sortedProperties = this.sortedProperties;
+		// indexes of off-heap entries point into them, and are built again on request once they're replaced
+		boolean indexKept = sortedProperties != null
+				&& (!(offHeap || storedOffHeap) || OverlayProperties.getBase(mergedEntries) == OverlayProperties.getBase(entries));
+		return new PropertiesSnapshot(manager, generation + 1, mergedEntries, indexKept ? sortedProperties.merge(changedProperties, removedKeys) : null);
+	}
+
+	/**
+	 * Returns the generation of this snapshot.<br>
+	 * Generations start from 0 and increase by one with each update changing any property, including resets, so that caches of values
+	 * derived from properties can detect staleness by comparing a single number with {@link PropertiesManager#getGeneration()}.
+	 * 
+	 * @return
+	 * the snapshot generation
+	 */
+	public long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 * property key
+	 * 
+	 * @return
+	 * property value as a plain {@code String}
+	 */
+	public String getProperty(String key) {
+		String value = properties.get(key);
+		if (value != null) {
+			manager.recordAccess(key, this);
+		}
+		return value;
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Long}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code Long}.
+	 * 
+	 */
+	public Long getLong(String key) throws NumberFormatException {
+		return (Long) getNumber(key, SupportedTypes.LONG);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Integer}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code Integer}.
+	 * 
+	 */
+	public Integer getInteger(String key) throws NumberFormatException {
+		return (Integer) getNumber(key, SupportedTypes.INTEGER);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code BigDecimal}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code BigDecimal}.
+	 * 
+	 */
+	public BigDecimal getBigDecimal(String key) throws NumberFormatException {
+		return (BigDecimal) getNumber(key, SupportedTypes.BIGDECIMAL);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Float}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code Float}.
+	 * 
+	 */
+	public Float getFloat(String key) throws NumberFormatException {
+		return (Float) getNumber(key, SupportedTypes.FLOAT);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Double}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code Double}.
+	 * 
+	 */
+	public Double getDouble(String key) throws NumberFormatException {
+		return (Double) getNumber(key, SupportedTypes.DOUBLE);
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code long}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code long}.
+	 * 
+	 */
+	public long getLongValue(String key) throws NumberFormatException {
+		return (Long) getNumber(key, SupportedTypes.LONG);
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code long}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code long}.
+	 * 
+	 */
+	public long getLongValue(String key, long defaultValue) throws NumberFormatException {
+		Long value = (Long) getTyped(key, SupportedTypes.LONG);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code int}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code int}.
+	 * 
+	 */
+	public int getIntValue(String key) throws NumberFormatException {
+		return (Integer) getNumber(key, SupportedTypes.INTEGER);
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code int}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code int}.
+	 * 
+	 */
+	public int getIntValue(String key, int defaultValue) throws NumberFormatException {
+		Integer value = (Integer) getTyped(key, SupportedTypes.INTEGER);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code float}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code float}.
+	 * 
+	 */
+	public float getFloatValue(String key) throws NumberFormatException {
+		return (Float) getNumber(key, SupportedTypes.FLOAT);
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code float}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code float}.
+	 * 
+	 */
+	public float getFloatValue(String key, float defaultValue) throws NumberFormatException {
+		Float value = (Float) getTyped(key, SupportedTypes.FLOAT);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code double}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code double}.
+	 * 
+	 */
+	public double getDoubleValue(String key) throws NumberFormatException {
+		return (Double) getNumber(key, SupportedTypes.DOUBLE);
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code double}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code double}.
+	 * 
+	 */
+	public double getDoubleValue(String key, double defaultValue) throws NumberFormatException {
+		Double value = (Double) getTyped(key, SupportedTypes.DOUBLE);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Boolean}, {@code null} if the property is missing
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public Boolean getBoolean(String key) throws IllegalArgumentException {
+		return (Boolean) getTyped(key, SupportedTypes.BOOLEAN);
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code boolean}
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property is missing or its value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public boolean getBooleanValue(String key) throws IllegalArgumentException {
+		Boolean value = getBoolean(key);
+		if (value == null) {
+			throw new IllegalArgumentException("Property not found: " + key);
+		}
+		return value;
+	}
+
+	/**
+	 * Gets a single property from this snapshot without allocating.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code boolean}
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public boolean getBooleanValue(String key, boolean defaultValue) throws IllegalArgumentException {
+		Boolean value = getBoolean(key);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Date}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code Date} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public Date getDate(String key) throws IllegalArgumentException {
+		return (Date) getTyped(key, SupportedTypes.DATE);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Instant}, using the system default time zone if the value doesn't define one
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code Instant} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public Instant getInstant(String key) throws IllegalArgumentException {
+		return (Instant) getTyped(key, SupportedTypes.INSTANT);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code LocalDate}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code LocalDate} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public LocalDate getLocalDate(String key) throws IllegalArgumentException {
+		return (LocalDate) getTyped(key, SupportedTypes.LOCALDATE);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code LocalDateTime}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code LocalDateTime} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public LocalDateTime getLocalDateTime(String key) throws IllegalArgumentException {
+		return (LocalDateTime) getTyped(key, SupportedTypes.LOCALDATETIME);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code ZonedDateTime}, using the system default time zone if the value doesn't define one
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code ZonedDateTime} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public ZonedDateTime getZonedDateTime(String key) throws IllegalArgumentException {
+		return (ZonedDateTime) getTyped(key, SupportedTypes.ZONEDDATETIME);
+	}
+
+	/**
+	 * Gets a single property from this snapshot.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Duration}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as an ISO-8601 {@code Duration}, such as {@code PT30S}.
+	 * 
+	 * @see 
+	 * Duration#parse(CharSequence)
+	 */
+	public Duration getDuration(String key) throws IllegalArgumentException {
+		return (Duration) getTyped(key, SupportedTypes.DURATION);
+	}
+
+	private Object getTyped(String key, SupportedTypes supportedType) {
+		Object value = getTyped(key, supportedType, manager.getOptions());
+		if (value != null) {
+			manager.recordAccess(key, this);
+		}
+		return value;
+	}
+
+	private Object getNumber(String key, SupportedTypes supportedType) throws NumberFormatException {
+		Object value = getTyped(key, supportedType);
+		if (value == null) {
+			throw new NumberFormatException("Property not found: " + key);
+		}
+		return value;
+	}
+
+	/**
+	 * @return
+	 * a read-only view of the snapshot properties
+	 */
+	public Map<String, String> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Returns a subset of properties whose keys match the provided regex.<br>
+	 * Compiled regexes are cached and results are computed once per snapshot.
+	 * 
+	 * @param keyPattern
+	 * regular expression to be matched by properties keys
+	 * 
+	 * @return
+	 * a read-only map of the matching properties
+	 */
+	public Map<String, String> getProperties(String keyPattern) {
+		return getMatching(PropertiesManager.compileKeyPattern(keyPattern));
+	}
+
+	String get(String key) {
+		return properties.get(key);
+	}
+
+	/**
+	 * Gets a property converted to the provided type.<br>
+	 * Conversions are performed once per snapshot, so repeated reads of an unchanged property return the same instance.
+	 * {@link Date}s are the exception, being mutable a new instance is returned on each invocation.
+	 * 
+	 * @param key
+	 * property key
+	 * @param supportedType
+	 * target type
+	 * @param options
+	 * conversion options
+	 * 
+	 * @return
+	 * the converted value, the type default value if the property is missing
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the value can't be converted
+	 * 
+	 * @see SupportedTypes#getDefaultValue()
+	 */
+	Object getTyped(String key, SupportedTypes supportedType, PropertiesStoreOptions options) throws IllegalArgumentException {
+		String value = properties.get(key);
+		if (value == null) {
+			return supportedType.getDefaultValue();
+		}
+		supportedType = supportedType.getWrapperType();
+		if (supportedType == SupportedTypes.STRING) {
+			return value;
+		}
+		if (supportedType == SupportedTypes.DATE) {
+			return Date.from((Instant) getTyped(key, SupportedTypes.INSTANT, options));
+		}
+
+		TypedValues typedValues = getTypedValues(options);
+		ConcurrentMap<String, Object> convertedValues = typedValues.get(supportedType);
+		Object convertedValue = convertedValues.get(key);
+		if (convertedValue == null) {
+			// parsed with the pattern and locale the cached values belong to, even if options change meanwhile
+			convertedValue = supportedType.convert(value, options.getDateFormat(typedValues.datePattern, typedValues.locale));
+			convertedValues.putIfAbsent(key, convertedValue);
+		}
+		return convertedValue;
+	}
+
+	/**
+	 * Seeds the converted values with the ones parsed at build time, for the keys still holding the values they were parsed from.
+	 * 
+	 * @param sourceProperties
+	 * properties whose values have been parsed
+	 * @param parsedValues
+	 * {@link Long}, {@link Double} or {@link Boolean} parsed values by key
+	 * @param options
+	 * conversion options
+	 */
+	void primeTypedValues(Map<String, String> sourceProperties, Map<String, Object> parsedValues, PropertiesStoreOptions options) {
+		TypedValues typedValues = getTypedValues(options);
+		for (Entry<String, Object> parsedValue : parsedValues.entrySet()) {
+			String key = parsedValue.getKey();
+			String value = entries.get(key);
+			if (value == null || !value.equals(sourceProperties.get(key))) {
+				// overridden by another file, or interpolated
+				continue;
+			}
+			if (parsedValue.getValue() instanceof Long) {
+				long longValue = (Long) parsedValue.getValue();
+				typedValues.get(SupportedTypes.LONG).putIfAbsent(key, longValue);
+				if (longValue == (int) longValue) {
+					typedValues.get(SupportedTypes.INTEGER).putIfAbsent(key, (int) longValue);
+				}
+			} else if (parsedValue.getValue() instanceof Double) {
+				typedValues.get(SupportedTypes.DOUBLE).putIfAbsent(key, parsedValue.getValue());
+			} else {
+				typedValues.get(SupportedTypes.BOOLEAN).putIfAbsent(key, parsedValue.getValue());
+			}
+		}
+	}
+
+	private TypedValues getTypedValues(PropertiesStoreOptions options) {
+		String datePattern = options.getDatePattern();
+		Locale locale = options.getLocale();
+		TypedValues typedValues = this.typedValues;
+		if (typedValues == null || !typedValues.datePattern.equals(datePattern) || !Objects.equals(typedValues.locale, locale)) {
+			typedValues = new TypedValues(datePattern, locale);
+			this.typedValues = typedValues;
+		}
+		return typedValues;
+	}
+
+	/**
+	 * @return
+	 * a read-only view of the snapshot entries
+	 */
+	Map<String, String> asMap() {
+		return properties;
+	}
+
+	/**
+	 * @param keyPattern
+	 * compiled regular expression to be matched by keys
+	 * 
+	 * @return
+	 * a read-only map of matching entries, computed once per snapshot and pattern
+	 */
+	Map<String, String> getMatching(Pattern keyPattern) {
+		Map<String, String> matchingProperties = patternQueries.get(keyPattern.pattern());
+		if (matchingProperties == null) {
+			Map<String, String> filteredProperties = new HashMap<>();
+			for (Entry<String, String> property : properties.entrySet()) {
+				if (keyPattern.matcher(property.getKey()).matches()) {
+					filteredProperties.put(property.getKey(), property.getValue());
+				}
+			}
+			matchingProperties = Collections.unmodifiableMap(filteredProperties);
+			if (patternQueries.size() < MAX_MEMOIZED_QUERIES) {
+				patternQueries.putIfAbsent(keyPattern.pattern(), matchingProperties);
+			}
+		}
+		return matchingProperties;
+	}
+
+	/**
+	 * Returns a subset of properties whose keys are within the provided range.
+	 * 
+	 * @param fromKey
+	 * lowest key, inclusive
+	 * @param toKey
+	 * highest key, exclusive
+	 * 
+	 * @return
+	 * a read-only map of the matching properties, sorted by key
+	 */
+	public SortedMap<String, String> getPropertiesByRange(String fromKey, String toKey) {
+		return Collections.unmodifiableSortedMap(getSortedProperties().subMap(fromKey, toKey));
+	}
+
+	/**
+	 * Returns a subset of properties whose keys start with the provided prefix.
+	 * 
+	 * @param keyPrefix
+	 * properties keys prefix
+	 * 
+	 * @return
+	 * a read-only map of the matching properties, sorted by key
+	 */
+	public SortedMap<String, String> getPropertiesByPrefix(String keyPrefix) {
+		return Collections.unmodifiableSortedMap(getSortedProperties().subMap(keyPrefix, getPrefixUpperBound(keyPrefix)));
+	}
+
+	/**
+	 * Returns a view of properties whose keys start with the provided prefix, where keys are stripped of the prefix.
+	 * 
+	 * @param keyPrefix
+	 * properties keys prefix
+	 * 
+	 * @return
+	 * a read-only view of the matching properties
+	 */
+	public Map<String, String> getPropertiesView(String keyPrefix) {
+		return new PrefixView(keyPrefix, getPropertiesByPrefix(keyPrefix));
+	}
+
+	private SortedPropertiesIndex getSortedProperties() {
+		SortedPropertiesIndex sortedProperties = this.sortedProperties;
+		if (sortedProperties == null) {
+			// concurrent first queries share a single build
+			synchronized (sortedPropertiesLock) {
+				sortedProperties = this.sortedProperties;
+				if (sortedProperties == null) {
+					sortedProperties = SortedPropertiesIndex.of(entries);
+					this.sortedProperties = sortedProperties;
+				}
+			}
+		}
+		return sortedProperties;
+	}
+
+	/**
+	 * @return
+	 * the lowest string greater than every string starting with the provided prefix, {@code null} if there's none
+	 */
+	private static String getPrefixUpperBound(String keyPrefix) {
+		int lastIndex = keyPrefix.length() - 1;
+		while (lastIndex >= 0 && keyPrefix.charAt(lastIndex) == Character.MAX_VALUE) {
+			lastIndex--;
+		}
+		if (lastIndex < 0) {
+			return null;
+		}
+		return keyPrefix.substring(0, lastIndex) + (char) (keyPrefix.charAt(lastIndex) + 1);
+	}
+
+	/**
+	 * Converted values grouped by type.
+	 */
+	private static final class TypedValues {
+
+		private final String datePattern;
+		private final Locale locale;
+		private final AtomicReferenceArray<ConcurrentMap<String, Object>> valuesByType = new AtomicReferenceArray<>(SupportedTypes.values().length);
+
+		private TypedValues(String datePattern, Locale locale) {
+			this.datePattern = datePattern;
+			this.locale = locale;
+		}
+
+		private ConcurrentMap<String, Object> get(SupportedTypes supportedType) {
+			ConcurrentMap<String, Object> values = valuesByType.get(supportedType.ordinal());
+			if (values == null) {
+				valuesByType.compareAndSet(supportedType.ordinal(), null, new ConcurrentHashMap<String, Object>());
+				values = valuesByType.get(supportedType.ordinal());
+			}
+			return values;
+		}
+
+	}
+
+	/**
+	 * Map view stripping a common prefix from the keys of the backing map.
+	 */
+	private static final class PrefixView extends AbstractMap<String, String> {
+
+		private final String keyPrefix;
+		private final Map<String, String> prefixedProperties;
+
+		private PrefixView(String keyPrefix, Map<String, String> prefixedProperties) {
+			this.keyPrefix = keyPrefix;
+			this.prefixedProperties = prefixedProperties;
+		}
+
+		@Override
+		public String get(Object key) {
+			return key instanceof String ? prefixedProperties.get(keyPrefix + key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && prefixedProperties.containsKey(keyPrefix + key);
+		}
+
+		@Override
+		public int size() {
+			return prefixedProperties.size();
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			return new AbstractSet<Entry<String, String>>() {
+
+				@Override
+				public Iterator<Entry<String, String>> iterator() {
+					final Iterator<Entry<String, String>> prefixedIterator = prefixedProperties.entrySet().iterator();
+					return new Iterator<Entry<String, String>>() {
+
+						@Override
+						public boolean hasNext() {
+							return prefixedIterator.hasNext();
+						}
+
+						@Override
+						public Entry<String, String> next() {
+							Entry<String, String> prefixedEntry = prefixedIterator.next();
+							return new SimpleImmutableEntry<>(prefixedEntry.getKey().substring(keyPrefix.length()), prefixedEntry.getValue());
+						}
+
+						@Override
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+
+					};
+				}
+
+				@Override
+				public int size() {
+					return prefixedProperties.size();
+				}
+
+			};
+		}
+
+	}
+
+}
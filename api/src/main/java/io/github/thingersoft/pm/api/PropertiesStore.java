@@ -1,79 +1,119 @@
 package io.github.thingersoft.pm.api;
 
-import java.io.File;
-import java.io.FileFilter;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.nio.file.DirectoryStream;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Properties;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
 
-import org.apache.commons.io.monitor.FileAlterationListener;
-import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
-import org.apache.commons.io.monitor.FileAlterationMonitor;
-import org.apache.commons.io.monitor.FileAlterationObserver;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ClassInfo;
 import io.github.classgraph.ClassInfoList;
 import io.github.classgraph.ScanResult;
-import io.github.thingersoft.pm.api.annotations.Property;
 import io.github.thingersoft.pm.api.data.PropertiesStoreOptions;
-import io.github.thingersoft.pm.api.data.SupportedTypes;
+import io.github.thingersoft.pm.api.data.RefreshStrategy;
 
 /**
  * This class acts as a container agnostic single source of truth for configuring applications through properties files.<br>
+ * Its static methods are backed by a default {@link PropertiesManager}, further managers can be created for isolated sets of properties.
  */
 public final class PropertiesStore {
 
 	private PropertiesStore() {
 	}
 
-	private static final Logger LOG = LoggerFactory.getLogger(PropertiesStore.class);
-
-	private static Properties applicationProperties = new Properties();
-	private static Map<String, FileAlterationMonitor> monitors = new HashMap<>();
-	private static Map<String, Field> injectionMap = new HashMap<>();
+	/**
+	 * Classpath resource listing the fully qualified names of classes annotated with {@link io.github.thingersoft.pm.api.annotations.Properties}, one per line
+	 */
+	public static final String ANNOTATED_CLASSES_INDEX = "META-INF/properties-manager/annotated-classes";
 
-	private static final long POLL_INTERVAL = 1000;
-	private static final Pattern LOCATION_VARIABLE_PATTERN = Pattern.compile("\\{.+\\}");
+	private static final PropertiesManager defaultManager = new PropertiesManager(null, true);
 
-	private static PropertiesStoreOptions options = new PropertiesStoreOptions();
+	private static volatile boolean annotatedClassesLookedUp = false;
 
-	private static boolean annotatedClassInitialized = false;
+	/**
+	 * @return
+	 * the manager backing the static methods of this class
+	 */
+	public static PropertiesManager getDefaultManager() {
+		return defaultManager;
+	}
 
 	public static void checkInitByAnnotatedClass(Class<?> annotatedClass) {
-		if (!annotatedClassInitialized) {
-			initByAnnotatedClass(annotatedClass);
-		}
+		defaultManager.checkInitByAnnotatedClass(annotatedClass);
 	}
 
+	/**
+	 * Initializes the store by the classes annotated with {@link io.github.thingersoft.pm.api.annotations.Properties} on first invocation.<br>
+	 * Annotated classes are read from the {@value #ANNOTATED_CLASSES_INDEX} resources written by the maven plugin enhance goal.
+	 * If none is found and {@link PropertiesStoreOptions#setClasspathScan(boolean) classpathScan} is enabled the whole classpath is scanned instead.
+	 */
 	public static void checkInitByAnnotatedClass() {
-		if (!annotatedClassInitialized) {
-			// look for classes annotated with @Properties
+		if (!annotatedClassesLookedUp) {
+			lookupAnnotatedClasses();
+		}
+	}
+
+	private static void lookupAnnotatedClasses() {
+		// lock the default manager, as injections performed while holding its lock may initialize classes calling back this class
+		synchronized (defaultManager) {
+			if (!annotatedClassesLookedUp) {
+				annotatedClassesLookedUp = true;
+				lookupAnnotatedClasses(defaultManager.getOptions().isClasspathScan());
+			}
+		}
+	}
+
+	private static void lookupAnnotatedClasses(boolean classpathScan) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (classLoader == null) {
+			classLoader = PropertiesStore.class.getClassLoader();
+		}
+
+		// look for classes annotated with @Properties listed by build time generated indexes
+		Set<String> mappedClassesNames = new LinkedHashSet<>();
+		try {
+			Enumeration<URL> indexes = classLoader.getResources(ANNOTATED_CLASSES_INDEX);
+			while (indexes.hasMoreElements()) {
+				try (InputStream is = indexes.nextElement().openStream()) {
+					for (String line : IOUtils.readLines(is, StandardCharsets.UTF_8)) {
+						if (StringUtils.isNotBlank(line)) {
+							mappedClassesNames.add(line.trim());
+						}
+					}
+				}
+			}
+			for (String mappedClassName : mappedClassesNames) {
+				defaultManager.initByAnnotatedClass(Class.forName(mappedClassName, true, classLoader));
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			throw new RuntimeException("Properties injection mapping failed", e);
+		}
+
+		// fall back to a classpath scan only if explicitly enabled, since it may take seconds on large classpaths
+		if (mappedClassesNames.isEmpty() && classpathScan) {
 			try (ScanResult scanResult = new ClassGraph().enableAllInfo().scan()) {
 				ClassInfoList classInfoList = scanResult.getClassesWithAnnotation(io.github.thingersoft.pm.api.annotations.Properties.class.getName());
 				for (ClassInfo mappedClassInfo : classInfoList) {
 					Class<?> mappedClass = mappedClassInfo.loadClass();
-					initByAnnotatedClass(mappedClass);
+					defaultManager.initByAnnotatedClass(mappedClass);
 				}
 			} catch (IllegalArgumentException e) {
 				throw new RuntimeException("Properties injection mapping failed", e);
@@ -82,27 +122,8 @@ public final class PropertiesStore {
 	}
 
 	public static void initByAnnotatedClass(Class<?> mappedClass) {
-		annotatedClassInitialized = true;
-
-		// look for fields annotated with @Property within matching classes
-		for (Field field : mappedClass.getDeclaredFields()) {
-			if (field.isAnnotationPresent(Property.class)) {
-				// save property key and field for future injection
-				field.setAccessible(true);
-				injectionMap.put(field.getAnnotation(Property.class).value(), field);
-			}
-		}
-
-		io.github.thingersoft.pm.api.annotations.Properties propertiesAnnotation = mappedClass
-				.getAnnotation(io.github.thingersoft.pm.api.annotations.Properties.class);
-
-		// configure and initialize store by @Properties annotation attributes
-		options.setHotReload(propertiesAnnotation.hotReload());
-		options.setDatePattern(propertiesAnnotation.datePattern());
-		options.setObfuscatedPropertyPattern(propertiesAnnotation.obfuscatedPropertyPattern());
-		options.setObfuscatedPropertyPlaceholder(propertiesAnnotation.obfuscatedPropertyPlaceholder());
-		options.setLocale(propertiesAnnotation.locale());
-		loadProperties(propertiesAnnotation.propertiesLocations());
+		defaultManager.initByAnnotatedClass(mappedClass);
+		checkInitByAnnotatedClass();
 	}
 
 	/**
@@ -110,171 +131,118 @@ public final class PropertiesStore {
 	 * Locations may contain system and/or environment variables within curly braces:<br><br>
 	 * {myapp.conf.folder}/app.properties<br><br>
 	 * If location is a folder each *.properties file inside will be loaded.<br>
-	 * When {@code hotReload} is {@code true} a new monitor thread will be spawned for each scanned properties file.<br>
-	 * In this case the caller application may invoke {@link PropertiesStore#stopWatching()} before shutting down.
+	 * Files are read and parsed in parallel, then merged in a single update: later locations override earlier ones and files within a folder
+	 * are applied in name order. If any file can't be loaded the storage is left untouched.<br>
+	 * When {@code hotReload} is {@code true} each scanned properties file will be watched by a single thread shared among all locations.<br>
+	 * In this case the caller application may invoke {@link PropertiesStore#stopWatching()} before shutting down.<br>
+	 * Load figures are exposed through the {@link PropertiesStoreMXBean} and {@link PropertiesLocationMXBean} MBeans.
 	 * 
 	 * @param propertiesLocations
 	 * file system locations of properties
 	 */
-	public synchronized static void loadProperties(String... propertiesLocations) {
+	public static void loadProperties(String... propertiesLocations) {
 		checkInitByAnnotatedClass();
-
-		List<String> interpolatedPropertiesLocations = new ArrayList<>();
-		for (String propertiesLocation : propertiesLocations) {
-			String interpolatedLocation = propertiesLocation;
-			Matcher variablesMatcher = LOCATION_VARIABLE_PATTERN.matcher(propertiesLocation);
-			while (variablesMatcher.find()) {
-				String matchedString = variablesMatcher.group();
-				String variable = matchedString.substring(1, matchedString.length() - 1);
-				String variableValue = System.getProperty(variable) != null ? System.getProperty(variable) : System.getenv(variable);
-				interpolatedLocation = interpolatedLocation.replace(matchedString, variableValue);
-			}
-			interpolatedPropertiesLocations.add(interpolatedLocation);
-		}
-
-		for (final String propertiesLocation : interpolatedPropertiesLocations) {
-			final Path propertiesPath = FileSystems.getDefault().getPath(propertiesLocation);
-			if (propertiesPath.toFile().isDirectory()) {
-				try {
-					DirectoryStream<Path> propertiesStream = Files.newDirectoryStream(propertiesPath, "*.properties");
-					for (Path propertiesFilePath : propertiesStream) {
-						internalLoadProperties(propertiesFilePath.toString());
-					}
-					propertiesStream.close();
-				} catch (IOException e) {
-					throw new RuntimeException(e);
-				}
-			} else {
-				internalLoadProperties(propertiesLocation);
-			}
-		}
+		defaultManager.loadProperties(propertiesLocations);
 	}
 
-	private static void internalLoadProperties(final String propertiesLocation) {
-		updateProperties(propertiesLocation);
-
-		// if hotReload flag is active spawn a new thread to watch for properties file changes 
-		if (options.isHotReload()) {
-
-			final Path propertiesPath = FileSystems.getDefault().getPath(propertiesLocation);
-			Path propertiesDirectory = propertiesPath.getParent();
-
-			FileAlterationObserver observer = new FileAlterationObserver(propertiesDirectory.toString(), new FileFilter() {
-				@Override
-				public boolean accept(File pathname) {
-					return propertiesPath.equals(pathname.toPath());
-				}
-			});
-			FileAlterationMonitor monitor = new FileAlterationMonitor(POLL_INTERVAL);
-			FileAlterationListener listener = new FileAlterationListenerAdaptor() {
-
-				@Override
-				public void onFileChange(File file) {
-					LOG.info("Change detected for properties file {}", propertiesLocation);
-					updateProperties(propertiesLocation);
-				}
-
-				@Override
-				public void onFileCreate(File file) {
-				}
-
-				@Override
-				public void onFileDelete(File file) {
-				}
-
-			};
-			observer.addListener(listener);
-			monitor.addObserver(observer);
-			try {
-				monitor.start();
-				monitors.put(propertiesLocation, monitor);
-			} catch (Exception e) {
-				throw new RuntimeException("Can't start monitoring properties " + propertiesLocation, e);
-			}
-		}
+	/**
+	 * Adds a source fetched once.
+	 * 
+	 * @param source
+	 * properties source
+	 * 
+	 * @see PropertiesManager#addSource(PropertySource, RefreshStrategy)
+	 */
+	public static void addSource(PropertySource source) {
+		checkInitByAnnotatedClass();
+		defaultManager.addSource(source);
 	}
 
-	private synchronized static void updateProperties(String propertiesLocation) {
-
-		// load properties file and merge entries into applicationProperties
-		try (FileInputStream fis = new FileInputStream(new File(propertiesLocation))) {
-			Properties propertiesToLoad = new Properties();
-			propertiesToLoad.load(fis);
-			applicationProperties.putAll(propertiesToLoad);
-			LOG.info("Properties updated. Current entries: {}", toText());
-		} catch (IOException | NullPointerException e) {
-			throw new RuntimeException("Can't load properties file", e);
-		}
-
-		// perform properties injection into fields scanned at initialization stage
-		for (Entry<String, Field> injectionEntry : injectionMap.entrySet()) {
-			try {
+	/**
+	 * Adds a source of properties other than files, refreshed in the background according to the provided strategy.
+	 * 
+	 * @param source
+	 * properties source
+	 * @param refreshStrategy
+	 * when the source gets fetched again
+	 * 
+	 * @see PropertiesManager#addSource(PropertySource, RefreshStrategy)
+	 */
+	public static void addSource(PropertySource source, RefreshStrategy refreshStrategy) {
+		checkInitByAnnotatedClass();
+		defaultManager.addSource(source, refreshStrategy);
+	}
 
-				Field field = injectionEntry.getValue();
-				SupportedTypes supportedType = SupportedTypes.getSupportedType(field.getType());
-				if (supportedType == null) {
-					throw new RuntimeException("Unsupported field type: " + field.getType());
-				}
+	/**
+	 * Removes a source along with its properties.
+	 * 
+	 * @param sourceName
+	 * name of the source to be removed
+	 * 
+	 * @return
+	 * {@code true} if the source had been added
+	 */
+	public static boolean removeSource(String sourceName) {
+		return defaultManager.removeSource(sourceName);
+	}
 
-				String propertyKey = field.getAnnotation(Property.class).value();
-				Object propertyValue = null;
-
-				// perform automatic type conversion
-				switch (supportedType) {
-				case BIGDECIMAL:
-					propertyValue = PropertiesStore.getBigDecimal(propertyKey);
-					break;
-				case DATE:
-					propertyValue = PropertiesStore.getDate(propertyKey);
-					break;
-				case DOUBLE:
-					propertyValue = PropertiesStore.getDouble(propertyKey);
-					break;
-				case FLOAT:
-					propertyValue = PropertiesStore.getFloat(propertyKey);
-					break;
-				case INTEGER:
-					propertyValue = PropertiesStore.getInteger(propertyKey);
-					break;
-				case LONG:
-					propertyValue = PropertiesStore.getLong(propertyKey);
-					break;
-				case STRING:
-					propertyValue = PropertiesStore.getProperty(propertyKey);
-					break;
-				}
-				field.set(null, propertyValue);
+	/**
+	 * Subscribes a listener to the changes of a single property.
+	 * 
+	 * @param key
+	 * property key
+	 * @param listener
+	 * listener to be notified
+	 * 
+	 * @return
+	 * the subscription, to be used for unsubscribing
+	 */
+	public static PropertiesSubscription subscribe(String key, PropertiesChangeListener listener) {
+		return defaultManager.subscribe(key, listener);
+	}
 
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
-		}
+	/**
+	 * Subscribes a listener to the changes of properties whose keys start with the provided prefix.
+	 * 
+	 * @param keyPrefix
+	 * properties keys prefix
+	 * @param listener
+	 * listener to be notified
+	 * 
+	 * @return
+	 * the subscription, to be used for unsubscribing
+	 */
+	public static PropertiesSubscription subscribeByPrefix(String keyPrefix, PropertiesChangeListener listener) {
+		return defaultManager.subscribeByPrefix(keyPrefix, listener);
+	}
 
+	/**
+	 * Subscribes a listener to the changes of properties whose keys match the provided regex.
+	 * 
+	 * @param keyPattern
+	 * regular expression to be matched by properties keys
+	 * @param listener
+	 * listener to be notified
+	 * 
+	 * @return
+	 * the subscription, to be used for unsubscribing
+	 */
+	public static PropertiesSubscription subscribeByPattern(String keyPattern, PropertiesChangeListener listener) {
+		return defaultManager.subscribeByPattern(keyPattern, listener);
 	}
 
 	/**
-	 * Stops all threads watching for file changes. 
+	 * Stops the thread watching for file changes, along with the refreshes of periodic sources.
 	 */
-	public synchronized static void stopWatching() {
-		for (FileAlterationMonitor monitor : monitors.values()) {
-			try {
-				monitor.stop();
-			} catch (Exception e) {
-				LOG.error("Failed stopping properties monitor " + monitor, e);
-			}
-		}
-		if (!monitors.isEmpty()) {
-			LOG.info("Properties monitoring stopped");
-			monitors = new HashMap<>();
-		}
+	public static void stopWatching() {
+		defaultManager.stopWatching();
 	}
 
 	/**
 	 * Resets {@link PropertiesStore} to its initial state. 
 	 */
-	public synchronized static void reset() {
-		stopWatching();
-		applicationProperties = new Properties();
+	public static void reset() {
+		defaultManager.reset();
 	}
 
 	/**
@@ -288,7 +256,7 @@ public final class PropertiesStore {
 	 */
 	public static String getProperty(String key) {
 		checkInitByAnnotatedClass();
-		return applicationProperties.getProperty(key);
+		return defaultManager.getProperty(key);
 	}
 
 	/**
@@ -305,7 +273,8 @@ public final class PropertiesStore {
 	 * 
 	 */
 	public static Long getLong(String key) throws NumberFormatException {
-		return new Long(getProperty(key));
+		checkInitByAnnotatedClass();
+		return defaultManager.getLong(key);
 	}
 
 	/**
@@ -322,7 +291,8 @@ public final class PropertiesStore {
 	 * 
 	 */
 	public static Integer getInteger(String key) throws NumberFormatException {
-		return new Integer(getProperty(key));
+		checkInitByAnnotatedClass();
+		return defaultManager.getInteger(key);
 	}
 
 	/**
@@ -339,7 +309,8 @@ public final class PropertiesStore {
 	 * 
 	 */
 	public static BigDecimal getBigDecimal(String key) throws NumberFormatException {
-		return new BigDecimal(getProperty(key));
+		checkInitByAnnotatedClass();
+		return defaultManager.getBigDecimal(key);
 	}
 
 	/**
@@ -356,7 +327,8 @@ public final class PropertiesStore {
 	 * 
 	 */
 	public static Float getFloat(String key) throws NumberFormatException {
-		return new Float(getProperty(key));
+		checkInitByAnnotatedClass();
+		return defaultManager.getFloat(key);
 	}
 
 	/**
@@ -373,7 +345,216 @@ public final class PropertiesStore {
 	 * 
 	 */
 	public static Double getDouble(String key) throws NumberFormatException {
-		return new Double(getProperty(key));
+		checkInitByAnnotatedClass();
+		return defaultManager.getDouble(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code long}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code long}.
+	 * 
+	 */
+	public static long getLongValue(String key) throws NumberFormatException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getLongValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code long}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code long}.
+	 * 
+	 */
+	public static long getLongValue(String key, long defaultValue) throws NumberFormatException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getLongValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code int}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code int}.
+	 * 
+	 */
+	public static int getIntValue(String key) throws NumberFormatException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getIntValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code int}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code int}.
+	 * 
+	 */
+	public static int getIntValue(String key, int defaultValue) throws NumberFormatException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getIntValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code float}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code float}.
+	 * 
+	 */
+	public static float getFloatValue(String key) throws NumberFormatException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getFloatValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code float}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code float}.
+	 * 
+	 */
+	public static float getFloatValue(String key, float defaultValue) throws NumberFormatException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getFloatValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code double}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property is missing or its value does not contain a parsable {@code double}.
+	 * 
+	 */
+	public static double getDoubleValue(String key) throws NumberFormatException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getDoubleValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating, once its value has been parsed.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code double}
+	 * 
+	 * @throws NumberFormatException
+	 * if the property value does not contain a parsable {@code double}.
+	 * 
+	 */
+	public static double getDoubleValue(String key, double defaultValue) throws NumberFormatException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getDoubleValue(key, defaultValue);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Boolean}, {@code null} if the property is missing
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public static Boolean getBoolean(String key) throws IllegalArgumentException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getBoolean(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code boolean}
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property is missing or its value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public static boolean getBooleanValue(String key) throws IllegalArgumentException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getBooleanValue(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage without allocating.
+	 * 
+	 * @param key
+	 *  property key
+	 * @param defaultValue
+	 *  value to be returned if the property is missing
+	 *  
+	 * @return
+	 * property value as {@code boolean}
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the property value is neither {@code true} nor {@code false}, ignoring case.
+	 * 
+	 */
+	public static boolean getBooleanValue(String key, boolean defaultValue) throws IllegalArgumentException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getBooleanValue(key, defaultValue);
 	}
 
 	/**
@@ -394,23 +575,135 @@ public final class PropertiesStore {
 	 * PropertiesStoreOptions#setLocale(Locale)
 	 */
 	public static Date getDate(String key) throws IllegalArgumentException {
-		try {
-			return new SimpleDateFormat(options.getDatePattern(), options.getLocale()).parse(getProperty(key));
-		} catch (ParseException e) {
-			throw new IllegalArgumentException("Can't parse date property", e);
-		}
+		checkInitByAnnotatedClass();
+		return defaultManager.getDate(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Instant}, using the system default time zone if the value doesn't define one
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code Instant} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public static Instant getInstant(String key) throws IllegalArgumentException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getInstant(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code LocalDate}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code LocalDate} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public static LocalDate getLocalDate(String key) throws IllegalArgumentException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getLocalDate(key);
 	}
 
 	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
 	 * @return
-	 * the current set of properties
+	 * property value as {@code LocalDateTime}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code LocalDateTime} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public static LocalDateTime getLocalDateTime(String key) throws IllegalArgumentException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getLocalDateTime(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code ZonedDateTime}, using the system default time zone if the value doesn't define one
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as {@code ZonedDateTime} using current {@code datePattern} and {@code locale}.
+	 * 
+	 * @see 
+	 * PropertiesStoreOptions#setDatePattern(String)
+	 * @see
+	 * PropertiesStoreOptions#setLocale(Locale)
+	 */
+	public static ZonedDateTime getZonedDateTime(String key) throws IllegalArgumentException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getZonedDateTime(key);
+	}
+
+	/**
+	 * Gets a single property from the centralized storage.
+	 * 
+	 * @param key
+	 *  property key
+	 *  
+	 * @return
+	 * property value as {@code Duration}
+	 * 
+	 * @throws IllegalArgumentException 
+	 * if the property value can't be parsed as an ISO-8601 {@code Duration}, such as {@code PT30S}.
+	 * 
+	 * @see 
+	 * Duration#parse(CharSequence)
+	 */
+	public static Duration getDuration(String key) throws IllegalArgumentException {
+		checkInitByAnnotatedClass();
+		return defaultManager.getDuration(key);
+	}
+
+	/**
+	 * Returns the current set of properties.<br>
+	 * The returned {@code Properties} is a read-only view of the current snapshot: it doesn't follow later updates, and its mutators throw
+	 * {@link UnsupportedOperationException}.
+	 * 
+	 * @return
+	 * a read-only view of the current set of properties
+	 * 
+	 * @see #getSnapshot()
 	 */
 	public static Properties getProperties() {
-		return applicationProperties;
+		return new ReadOnlyProperties(defaultManager.getProperties());
 	}
 
 	/**
-	 * Returns a subset of properties whose keys match the provided regex.
+	 * Returns a subset of properties whose keys match the provided regex.<br>
+	 * The matching properties are copied from the result of {@link #getPropertiesByPattern(String)}, which avoids the copy.
 	 * 
 	 * @param keyPattern
 	 * regular expression to be matched by properties keys
@@ -419,27 +712,140 @@ public final class PropertiesStore {
 	 * the matching set of properties
 	 */
 	public static Properties getProperties(String keyPattern) {
-		checkInitByAnnotatedClass();
-
 		Properties filteredProperties = new Properties();
-		for (Entry<Object, Object> property : applicationProperties.entrySet()) {
-			if (Pattern.matches(keyPattern, (CharSequence) property.getKey())) {
-				filteredProperties.put(property.getKey(), property.getValue());
-			}
-		}
+		filteredProperties.putAll(getPropertiesByPattern(keyPattern));
 		return filteredProperties;
 	}
 
+	/**
+	 * Returns a subset of properties whose keys match the provided regex.<br>
+	 * Compiled regexes are cached and results are computed once until the next properties update.
+	 * 
+	 * @param keyPattern
+	 * regular expression to be matched by properties keys
+	 * 
+	 * @return
+	 * a read-only map of the matching properties
+	 */
+	public static Map<String, String> getPropertiesByPattern(String keyPattern) {
+		checkInitByAnnotatedClass();
+		return defaultManager.getProperties(keyPattern);
+	}
+
+	/**
+	 * Returns a subset of properties whose keys start with the provided prefix.
+	 * 
+	 * @param keyPrefix
+	 * properties keys prefix
+	 * 
+	 * @return
+	 * a read-only map of the matching properties, sorted by key
+	 */
+	public static SortedMap<String, String> getPropertiesByPrefix(String keyPrefix) {
+		checkInitByAnnotatedClass();
+		return defaultManager.getPropertiesByPrefix(keyPrefix);
+	}
+
+	/**
+	 * Returns a subset of properties whose keys are within the provided range.
+	 * 
+	 * @param fromKey
+	 * lowest key, inclusive
+	 * @param toKey
+	 * highest key, exclusive
+	 * 
+	 * @return
+	 * a read-only map of the matching properties, sorted by key
+	 */
+	public static SortedMap<String, String> getPropertiesByRange(String fromKey, String toKey) {
+		checkInitByAnnotatedClass();
+		return defaultManager.getPropertiesByRange(fromKey, toKey);
+	}
+
+	/**
+	 * Returns a view of properties whose keys start with the provided prefix, where keys are stripped of the prefix:<br><br>
+	 * {@code getPropertiesView("tenant1.").get("timeout")} returns the value of {@code tenant1.timeout}<br><br>
+	 * The view doesn't copy any entry and reflects the properties at the time of invocation.
+	 * 
+	 * @param keyPrefix
+	 * properties keys prefix
+	 * 
+	 * @return
+	 * a read-only view of the matching properties
+	 */
+	public static Map<String, String> getPropertiesView(String keyPrefix) {
+		checkInitByAnnotatedClass();
+		return defaultManager.getPropertiesView(keyPrefix);
+	}
+
+	/**
+	 * Returns the current properties as an immutable snapshot.<br>
+	 * Reads from the returned snapshot are consistent with each other whatever reloads happen meanwhile, and cost the same as reads from
+	 * the store.
+	 * 
+	 * @return
+	 * the current snapshot
+	 */
+	public static PropertiesSnapshot getSnapshot() {
+		checkInitByAnnotatedClass();
+		return defaultManager.getSnapshot();
+	}
+
+	/**
+	 * @return
+	 * the generation of the current snapshot
+	 * 
+	 * @see PropertiesSnapshot#getGeneration()
+	 */
+	public static long getGeneration() {
+		checkInitByAnnotatedClass();
+		return defaultManager.getGeneration();
+	}
+
+	/**
+	 * Returns the most read properties since {@link PropertiesStoreOptions#setAccessTracking(boolean) accessTracking} has been enabled.<br>
+	 * Only reads of single properties by {@link #getProperty(String)} and the typed getters, of either the store or its snapshots, are counted, 
+	 * counts are estimates unless {@link PropertiesStoreOptions#setAccessSamplingInterval(int) accessSamplingInterval} is 1.
+	 * 
+	 * @param count
+	 * maximum number of properties to be returned
+	 * 
+	 * @return
+	 * a read-only map of properties keys and estimated reads count, sorted by decreasing count
+	 */
+	public static Map<String, Long> getMostReadProperties(int count) {
+		return defaultManager.getMostReadProperties(count);
+	}
+
+	/**
+	 * Returns the keys of current properties never read since {@link PropertiesStoreOptions#setAccessTracking(boolean) accessTracking}
+	 * has been enabled.<br>
+	 * Only reads of single properties by {@link #getProperty(String)} and the typed getters, of either the store or its snapshots, are counted.
+	 * 
+	 * @return
+	 * a read-only sorted set of properties keys
+	 */
+	public static SortedSet<String> getUnreadProperties() {
+		return defaultManager.getUnreadProperties();
+	}
+
+	/**
+	 * Clears the reads count of every property.
+	 */
+	public static void resetAccessCounters() {
+		defaultManager.resetAccessCounters();
+	}
+
 	public static PropertiesStoreOptions getOptions() {
-		return options;
+		return defaultManager.getOptions();
 	}
 
 	public static void setOptions(PropertiesStoreOptions options) {
-		PropertiesStore.options = options;
+		defaultManager.setOptions(options);
 	}
 
 	public static long getPollInterval() {
-		return POLL_INTERVAL;
+		return defaultManager.getPollInterval();
 	}
 
 	/**
@@ -459,15 +865,23 @@ public final class PropertiesStore {
 	 * a string representation of the current properties
 	 */
 	public static String toText() {
-		List<String> properties = new ArrayList<>();
-		for (Entry<Object, Object> property : applicationProperties.entrySet()) {
-			String key = property.getKey().toString();
-			String obfuscatedPropertyPattern = options.getObfuscatedPropertyPattern();
-			String value = obfuscatedPropertyPattern != null && key.matches(obfuscatedPropertyPattern) ? options.getObfuscatedPropertyPlaceholder()
-					: "" + property.getValue();
-			properties.add(key + "=" + value);
-		}
-		return "{" + StringUtils.join(properties, ", ") + "}";
+		return defaultManager.toText();
+	}
+
+	/**
+	 * Writes the string representation of the current properties to the provided {@link Appendable}, 
+	 * without building it in memory first.
+	 * 
+	 * @param appendable
+	 * target of the string representation
+	 * 
+	 * @throws IOException
+	 * if the {@code appendable} can't be written
+	 * 
+	 * @see #toText()
+	 */
+	public static void toText(Appendable appendable) throws IOException {
+		defaultManager.toText(appendable);
 	}
 
 }
@@ -0,0 +1,54 @@
+package io.github.thingersoft.pm.api;
+
+/**
+ * Management interface exposing {@link PropertiesStore} totals, registered as {@value #OBJECT_NAME}.<br>
+ * Named {@link PropertiesManager}s are registered with an additional {@code store} key set to their quoted name.
+ * Per location figures are exposed by {@link PropertiesLocationMXBean}s.
+ */
+public interface PropertiesStoreMXBean {
+
+	String OBJECT_NAME = "io.github.thingersoft.pm:type=PropertiesStore";
+
+	/**
+	 * @return
+	 * number of properties held by the current snapshot
+	 */
+	int getPropertiesCount();
+
+	/**
+	 * @return
+	 * number of loaded properties files
+	 */
+	int getLocationsCount();
+
+	/**
+	 * @return
+	 * number of properties files being watched for changes
+	 */
+	int getWatchedFilesCount();
+
+	/**
+	 * @return
+	 * number of live threads watching and reloading properties files
+	 */
+	int getWatcherThreadsCount();
+
+	/**
+	 * @return
+	 * number of subscribed {@link PropertiesChangeListener}s
+	 */
+	int getSubscriptionsCount();
+
+	/**
+	 * @return
+	 * successful loads and reloads of every location
+	 */
+	long getReloadsCount();
+
+	/**
+	 * @return
+	 * failed loads and reloads of every location
+	 */
+	long getFailedReloadsCount();
+
+}
@@ -0,0 +1,128 @@
+package io.github.thingersoft.pm.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.thingersoft.pm.api.data.PropertyChangeEvent;
+
+/**
+ * Binds a {@link PropertiesChangeListener} to the properties keys it's interested in.<br>
+ * Matching changes are queued and delivered by at most one task at a time, so a slow listener never blocks properties updates.
+ */
+public final class PropertiesSubscription {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PropertiesSubscription.class);
+
+	private final PropertiesManager manager;
+	private final String key;
+	private final String keyPrefix;
+	private final Pattern keyPattern;
+	private final PropertiesChangeListener listener;
+
+	private final Map<String, PropertyChangeEvent> pendingChanges = new LinkedHashMap<>();
+	private boolean deliveryScheduled = false;
+	private volatile boolean active = true;
+
+	private PropertiesSubscription(PropertiesManager manager, String key, String keyPrefix, Pattern keyPattern, PropertiesChangeListener listener) {
+		this.manager = manager;
+		this.key = key;
+		this.keyPrefix = keyPrefix;
+		this.keyPattern = keyPattern;
+		this.listener = listener;
+	}
+
+	static PropertiesSubscription byKey(PropertiesManager manager, String key, PropertiesChangeListener listener) {
+		return new PropertiesSubscription(manager, key, null, null, listener);
+	}
+
+	static PropertiesSubscription byPrefix(PropertiesManager manager, String keyPrefix, PropertiesChangeListener listener) {
+		return new PropertiesSubscription(manager, null, keyPrefix, null, listener);
+	}
+
+	static PropertiesSubscription byPattern(PropertiesManager manager, String keyPattern, PropertiesChangeListener listener) {
+		return new PropertiesSubscription(manager, null, null, Pattern.compile(keyPattern), listener);
+	}
+
+	/**
+	 * Stops notifying the listener. Changes already being delivered are not affected.
+	 */
+	public void unsubscribe() {
+		active = false;
+		manager.unsubscribe(this);
+	}
+
+	boolean matches(String changedKey) {
+		if (key != null) {
+			return key.equals(changedKey);
+		} else if (keyPrefix != null) {
+			return changedKey.startsWith(keyPrefix);
+		} else {
+			return keyPattern.matcher(changedKey).matches();
+		}
+	}
+
+	/**
+	 * Queues the matching changes and schedules their delivery unless already scheduled.
+	 */
+	void enqueue(List<PropertyChangeEvent> changes, Executor executor) {
+		synchronized (pendingChanges) {
+			for (PropertyChangeEvent change : changes) {
+				if (matches(change.getKey())) {
+					PropertyChangeEvent pendingChange = pendingChanges.remove(change.getKey());
+					if (pendingChange == null) {
+						pendingChanges.put(change.getKey(), change);
+					} else if (!StringUtils.equals(pendingChange.getOldValue(), change.getNewValue())) {
+						pendingChanges.put(change.getKey(), new PropertyChangeEvent(change.getKey(), pendingChange.getOldValue(), change.getNewValue()));
+					}
+				}
+			}
+			if (deliveryScheduled || pendingChanges.isEmpty()) {
+				return;
+			}
+			deliveryScheduled = true;
+		}
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					deliver();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			LOG.error("Can't notify properties changes to " + listener, e);
+			synchronized (pendingChanges) {
+				deliveryScheduled = false;
+			}
+		}
+	}
+
+	private void deliver() {
+		while (true) {
+			List<PropertyChangeEvent> changes;
+			synchronized (pendingChanges) {
+				if (pendingChanges.isEmpty() || !active) {
+					pendingChanges.clear();
+					deliveryScheduled = false;
+					return;
+				}
+				changes = new ArrayList<>(pendingChanges.values());
+				pendingChanges.clear();
+			}
+			try {
+				listener.propertiesChanged(changes);
+			} catch (RuntimeException e) {
+				LOG.error("Properties change listener " + listener + " failed", e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+package io.github.thingersoft.pm.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches properties files for changes using a single thread for every watched location.<br>
+ * Each directory containing watched files is registered only once and its events are dispatched to the listeners of the matching files.
+ * Directories can also be watched as a whole, so that their listener gets notified of events on any file without a listener of its own.
+ */
+abstract class PropertiesWatcher implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PropertiesWatcher.class);
+
+	static final String THREAD_NAME = "properties-watcher";
+
+	/**
+	 * Callback invoked by the watcher thread when a watched file changes.
+	 */
+	interface Listener {
+
+		void onFileChange(Path file);
+
+		/**
+		 * Invoked when a file is created, including files replaced by a rename.
+		 * 
+		 * @param file
+		 * absolute path of the created file
+		 */
+		default void onFileCreate(Path file) {
+			onFileChange(file);
+		}
+
+		/**
+		 * Invoked when a file is deleted, or renamed away.
+		 * 
+		 * @param file
+		 * absolute path of the deleted file
+		 */
+		default void onFileDelete(Path file) {
+			// files are usually replaced right after, so only creations are relevant by default
+		}
+
+		/**
+		 * Invoked on the listener of a whole directory when some of its events got lost.
+		 * 
+		 * @param directory
+		 * absolute path of the directory to be scanned again
+		 */
+		default void onDirectoryChange(Path directory) {
+			// nothing to do for file listeners, notified of a change instead
+		}
+
+	}
+
+	private final Map<Path, Map<Path, Listener>> listeners = new HashMap<>();
+	private final Map<Path, Listener> directoryListeners = new HashMap<>();
+
+	/**
+	 * Creates a watcher backed by native file system notifications.<br>
+	 * Falls back to a single polling thread when the default file system can't deliver them.
+	 * 
+	 * @param pollInterval
+	 * interval in milliseconds between checks of the polling fallback
+	 * 
+	 * @return
+	 * a started watcher
+	 */
+	static PropertiesWatcher create(long pollInterval) {
+		try {
+			WatchService watchService = FileSystems.getDefault().newWatchService();
+			// the JDK provided polling implementation scans every directory each 10 seconds with no way to configure it
+			if (!watchService.getClass().getName().endsWith("PollingWatchService")) {
+				return new NioPropertiesWatcher(watchService);
+			}
+			watchService.close();
+		} catch (IOException | UnsupportedOperationException e) {
+			LOG.debug("Native file system notifications not available", e);
+		}
+		LOG.info("Native file system notifications not available, polling properties files every {} ms", pollInterval);
+		return new PollingPropertiesWatcher(pollInterval);
+	}
+
+	/**
+	 * Starts watching a file, replacing any listener previously registered for it.
+	 * 
+	 * @param file
+	 * file to be watched
+	 * @param listener
+	 * callback to be notified of file changes
+	 */
+	synchronized void watch(Path file, Listener listener) {
+		Path absoluteFile = file.toAbsolutePath().normalize();
+		Path directory = absoluteFile.getParent();
+		Map<Path, Listener> filesListeners = listeners.get(directory);
+		if (filesListeners == null) {
+			filesListeners = new HashMap<>();
+			filesListeners.put(absoluteFile, listener);
+			listeners.put(directory, filesListeners);
+			if (!directoryListeners.containsKey(directory)) {
+				register(directory, filesListeners);
+			}
+		} else {
+			filesListeners.put(absoluteFile, listener);
+		}
+	}
+
+	/**
+	 * Starts watching a whole directory, replacing any listener previously registered for it.<br>
+	 * The listener is notified of events on files of the directory that don't have a listener of their own.
+	 * 
+	 * @param directory
+	 * directory to be watched
+	 * @param listener
+	 * callback to be notified of files creation, change and deletion
+	 */
+	synchronized void watchDirectory(Path directory, Listener listener) {
+		Path absoluteDirectory = directory.toAbsolutePath().normalize();
+		if (directoryListeners.put(absoluteDirectory, listener) == null && !listeners.containsKey(absoluteDirectory)) {
+			register(absoluteDirectory, directoryListeners);
+		}
+	}
+
+	private void register(Path directory, Map<Path, ?> registeredListeners) {
+		try {
+			register(directory);
+		} catch (IOException e) {
+			registeredListeners.remove(directory);
+			throw new RuntimeException("Can't start monitoring properties directory " + directory, e);
+		}
+	}
+
+	/**
+	 * @param file
+	 * absolute file path
+	 * 
+	 * @return
+	 * {@code true} if the file has a registered listener
+	 */
+	synchronized boolean isWatched(Path file) {
+		Map<Path, Listener> filesListeners = listeners.get(file.getParent());
+		return filesListeners != null && filesListeners.containsKey(file);
+	}
+
+	/**
+	 * @param directory
+	 * absolute directory path
+	 * 
+	 * @return
+	 * {@code true} if the directory is watched as a whole
+	 */
+	synchronized boolean isWatchedDirectory(Path directory) {
+		return directoryListeners.containsKey(directory);
+	}
+
+	/**
+	 * @return
+	 * the number of files with a registered listener
+	 */
+	synchronized int getWatchedFilesCount() {
+		int watchedFilesCount = 0;
+		for (Map<Path, Listener> filesListeners : listeners.values()) {
+			watchedFilesCount += filesListeners.size();
+		}
+		return watchedFilesCount;
+	}
+
+	/**
+	 * Notifies the listener registered for the provided file, or for its directory, if any.
+	 * 
+	 * @param file
+	 * absolute path of the changed file
+	 */
+	void fireFileChange(Path file) {
+		Listener listener = getListener(file);
+		if (listener != null) {
+			try {
+				listener.onFileChange(file);
+			} catch (RuntimeException e) {
+				LOG.error("Failed handling change of properties file " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * Notifies the listener registered for the provided file, or for its directory, if any.
+	 * 
+	 * @param file
+	 * absolute path of the created file
+	 */
+	void fireFileCreate(Path file) {
+		Listener listener = getListener(file);
+		if (listener != null) {
+			try {
+				listener.onFileCreate(file);
+			} catch (RuntimeException e) {
+				LOG.error("Failed handling creation of properties file " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * Notifies the listener registered for the provided file, or for its directory, if any.
+	 * 
+	 * @param file
+	 * absolute path of the deleted file
+	 */
+	void fireFileDelete(Path file) {
+		Listener listener = getListener(file);
+		if (listener != null) {
+			try {
+				listener.onFileDelete(file);
+			} catch (RuntimeException e) {
+				LOG.error("Failed handling deletion of properties file " + file, e);
+			}
+		}
+	}
+
+	private synchronized Listener getListener(Path file) {
+		Map<Path, Listener> filesListeners = listeners.get(file.getParent());
+		Listener listener = filesListeners != null ? filesListeners.get(file) : null;
+		return listener != null ? listener : directoryListeners.get(file.getParent());
+	}
+
+	/**
+	 * Notifies the listeners of every watched file within the provided directory.
+	 * 
+	 * @param directory
+	 * absolute path of the directory whose events got lost
+	 */
+	void fireDirectoryChange(Path directory) {
+		Map<Path, Listener> filesListeners;
+		Listener directoryListener;
+		synchronized (this) {
+			filesListeners = listeners.get(directory);
+			filesListeners = filesListeners != null ? new HashMap<>(filesListeners) : new HashMap<Path, Listener>();
+			directoryListener = directoryListeners.get(directory);
+		}
+		for (Path file : filesListeners.keySet()) {
+			fireFileChange(file);
+		}
+		if (directoryListener != null) {
+			try {
+				directoryListener.onDirectoryChange(directory);
+			} catch (RuntimeException e) {
+				LOG.error("Failed handling change of properties directory " + directory, e);
+			}
+		}
+	}
+
+	/**
+	 * @return
+	 * absolute paths of the directories watched as a whole
+	 */
+	synchronized Set<Path> getWatchedDirectories() {
+		return new HashSet<>(directoryListeners.keySet());
+	}
+
+	/**
+	 * Starts receiving events from the provided directory.
+	 * 
+	 * @param directory
+	 * absolute directory path
+	 * 
+	 * @throws IOException
+	 * if the directory can't be watched
+	 */
+	protected abstract void register(Path directory) throws IOException;
+
+}
@@ -0,0 +1,40 @@
+package io.github.thingersoft.pm.api;
+
+import io.github.thingersoft.pm.api.annotations.Property;
+
+/**
+ * Writes the {@link Property} annotated static fields of a mapped class through plain assignments instead of reflection.<br>
+ * Implementations are generated along with the mapping class by the maven plugin {@code generate} goal and registered as
+ * {@link java.util.ServiceLoader} services, so that managers find them when initializing the mapped class. Fields the writer doesn't
+ * know are written through reflection.
+ */
+public interface PropertyFieldsWriter {
+
+	/**
+	 * @return
+	 * the class whose fields are written
+	 */
+	Class<?> getMappedClass();
+
+	/**
+	 * Resolves a field once, so that updates can write it by index.
+	 *
+	 * @param fieldName
+	 * name of a {@link Property} annotated field of the mapped class
+	 *
+	 * @return
+	 * the field index, -1 if the field isn't written by this writer
+	 */
+	int getFieldIndex(String fieldName);
+
+	/**
+	 * Writes a converted property value.
+	 *
+	 * @param fieldIndex
+	 * field index, as returned by {@link #getFieldIndex(String)}
+	 * @param value
+	 * value converted to the field type
+	 */
+	void write(int fieldIndex, Object value);
+
+}
@@ -0,0 +1,91 @@
+package io.github.thingersoft.pm.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import io.github.thingersoft.pm.api.annotations.Property;
+import io.github.thingersoft.pm.api.data.PropertiesStoreOptions;
+import io.github.thingersoft.pm.api.data.SupportedTypes;
+
+/**
+ * Injects a property into a {@link Property} annotated static field.<br>
+ * Field type resolution and setter lookup are performed once at construction, so that updates only run the conversion and the setter.<br>
+ * Fields known by a generated {@link PropertyFieldsWriter} are written by a plain assignment selected by index, skipping the setter.
+ */
+final class PropertyInjector {
+
+	private final Field field;
+	private final String propertyKey;
+	private final SupportedTypes supportedType;
+	private final PropertyFieldsWriter fieldsWriter;
+	private final int fieldIndex;
+	private final MethodHandle setter;
+
+	/**
+	 * @param field
+	 * {@link Property} annotated static field
+	 * @param fieldsWriter
+	 * generated writer of the field class, {@code null} if there's none
+	 */
+	PropertyInjector(Field field, PropertyFieldsWriter fieldsWriter) {
+		supportedType = SupportedTypes.getSupportedType(field.getType());
+		if (supportedType == null) {
+			throw new RuntimeException("Unsupported field type: " + field.getType());
+		}
+		this.field = field;
+		propertyKey = field.getAnnotation(Property.class).value();
+		fieldIndex = fieldsWriter != null ? fieldsWriter.getFieldIndex(field.getName()) : -1;
+		this.fieldsWriter = fieldIndex >= 0 ? fieldsWriter : null;
+		if (this.fieldsWriter == null) {
+			try {
+				field.setAccessible(true);
+				setter = MethodHandles.lookup().unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class));
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		} else {
+			setter = null;
+		}
+	}
+
+	/**
+	 * Converts the property value to the field type.
+	 * 
+	 * @param snapshot
+	 * snapshot holding the property value
+	 * @param options
+	 * conversion options
+	 * 
+	 * @return
+	 * the converted value, the field type default value if the property is missing
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the value can't be converted
+	 */
+	Object convert(PropertiesSnapshot snapshot, PropertiesStoreOptions options) throws IllegalArgumentException {
+		return snapshot.getTyped(propertyKey, supportedType, options);
+	}
+
+	void inject(Object convertedValue) {
+		if (fieldsWriter != null) {
+			fieldsWriter.write(fieldIndex, convertedValue);
+			return;
+		}
+		try {
+			setter.invokeExact(convertedValue);
+		} catch (Throwable e) {
+			throw new RuntimeException("Can't inject property " + propertyKey + " into " + field, e);
+		}
+	}
+
+	Field getField() {
+		return field;
+	}
+
+	String getPropertyKey() {
+		return propertyKey;
+	}
+
+}
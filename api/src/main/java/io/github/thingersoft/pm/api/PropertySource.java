@@ -0,0 +1,35 @@
+package io.github.thingersoft.pm.api;
+
+import java.io.IOException;
+import java.util.Map;
+
+import io.github.thingersoft.pm.api.data.RefreshStrategy;
+
+/**
+ * Provider of properties other than files loaded by {@link PropertiesStore#loadProperties(String...)}, such as classpath resources,
+ * system properties, environment variables or database tables.<br>
+ * Built-in sources are created by {@link PropertySources} factory methods.
+ *
+ * @see PropertiesStore#addSource(PropertySource, RefreshStrategy)
+ */
+public interface PropertySource {
+
+	/**
+	 * @return
+	 * the source name, unique among the sources and files of a manager
+	 */
+	String getName();
+
+	/**
+	 * Fetches the current properties of the source.<br>
+	 * Invoked on a background thread for each refresh, never while holding any lock of the manager: implementations may block on I/O.
+	 *
+	 * @return
+	 * the source properties
+	 *
+	 * @throws IOException
+	 * if properties can't be fetched, in which case the previously fetched ones are kept
+	 */
+	Map<String, String> fetch() throws IOException;
+
+}
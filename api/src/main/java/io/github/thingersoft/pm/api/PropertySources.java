@@ -0,0 +1,200 @@
+package io.github.thingersoft.pm.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Factory methods of built-in {@link PropertySource}s.
+ */
+public final class PropertySources {
+
+	private PropertySources() {
+
+	}
+
+	/**
+	 * Creates a source reading a properties resource from the context class loader, including resources packaged within jars.
+	 *
+	 * @param resource
+	 * resource name, e.g. {@code config/app.properties}
+	 *
+	 * @return
+	 * a source named {@code classpath:<resource>}
+	 */
+	public static PropertySource classpath(String resource) {
+		return classpath(resource, Thread.currentThread().getContextClassLoader(), StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Creates a source reading a properties resource from the provided class loader, including resources packaged within jars.
+	 *
+	 * @param resource
+	 * resource name, e.g. {@code config/app.properties}
+	 * @param classLoader
+	 * class loader holding the resource
+	 * @param charset
+	 * resource encoding
+	 *
+	 * @return
+	 * a source named {@code classpath:<resource>}
+	 */
+	public static PropertySource classpath(final String resource, final ClassLoader classLoader, final Charset charset) {
+		return new PropertySource() {
+			@Override
+			public String getName() {
+				return "classpath:" + resource;
+			}
+
+			@Override
+			public Map<String, String> fetch() throws IOException {
+				URL url = classLoader.getResource(resource);
+				if (url == null) {
+					throw new IOException("Properties resource " + resource + " not found");
+				}
+				return read(url, charset);
+			}
+		};
+	}
+
+	/**
+	 * Creates a source reading properties from a URL, such as {@code jar:file:/opt/app/config.jar!/app.properties} for a file inside a jar.
+	 *
+	 * @param url
+	 * properties URL
+	 * @param charset
+	 * content encoding
+	 *
+	 * @return
+	 * a source named as the provided URL
+	 */
+	public static PropertySource url(final URL url, final Charset charset) {
+		return new PropertySource() {
+			@Override
+			public String getName() {
+				return url.toString();
+			}
+
+			@Override
+			public Map<String, String> fetch() throws IOException {
+				return read(url, charset);
+			}
+		};
+	}
+
+	/**
+	 * Creates a source copying system properties whose keys and values are strings.
+	 *
+	 * @return
+	 * a source named {@code system-properties}
+	 */
+	public static PropertySource systemProperties() {
+		return new PropertySource() {
+			@Override
+			public String getName() {
+				return "system-properties";
+			}
+
+			@Override
+			public Map<String, String> fetch() {
+				Map<String, String> properties = new HashMap<>();
+				Properties systemProperties = System.getProperties();
+				for (String key : systemProperties.stringPropertyNames()) {
+					String value = systemProperties.getProperty(key);
+					if (value != null) {
+						properties.put(key, value);
+					}
+				}
+				return properties;
+			}
+		};
+	}
+
+	/**
+	 * Creates a source copying environment variables.
+	 *
+	 * @return
+	 * a source named {@code environment}
+	 */
+	public static PropertySource environment() {
+		return new PropertySource() {
+			@Override
+			public String getName() {
+				return "environment";
+			}
+
+			@Override
+			public Map<String, String> fetch() {
+				return new HashMap<>(System.getenv());
+			}
+		};
+	}
+
+	/**
+	 * Creates a source reading properties from a database query, whose first column holds keys and second column holds values.<br>
+	 * Rows with a {@code null} key or value are skipped. Each fetch borrows a connection from the provided data source and releases it
+	 * before returning.
+	 *
+	 * @param dataSource
+	 * database connections provider
+	 * @param query
+	 * query selecting keys and values, e.g. {@code SELECT prop_key, prop_value FROM app_properties}
+	 *
+	 * @return
+	 * a source named {@code jdbc:<query>}
+	 */
+	public static PropertySource jdbc(final DataSource dataSource, final String query) {
+		return new PropertySource() {
+			@Override
+			public String getName() {
+				return "jdbc:" + query;
+			}
+
+			@Override
+			public Map<String, String> fetch() throws IOException {
+				Map<String, String> properties = new HashMap<>();
+				try (Connection connection = dataSource.getConnection();
+						PreparedStatement statement = connection.prepareStatement(query);
+						ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						String key = resultSet.getString(1);
+						String value = resultSet.getString(2);
+						if (key != null && value != null) {
+							properties.put(key, value);
+						}
+					}
+				} catch (SQLException e) {
+					throw new IOException("Can't query properties: " + query, e);
+				}
+				return properties;
+			}
+		};
+	}
+
+	private static Map<String, String> read(URL url, Charset charset) throws IOException {
+		URLConnection connection = url.openConnection();
+		// cached jar files would keep serving the content they had when first opened
+		connection.setUseCaches(false);
+		try (InputStream is = connection.getInputStream()) {
+			return PropertiesParser.parse(ByteBuffer.wrap(IOUtils.toByteArray(is)), charset);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Can't parse properties from " + url, e);
+		}
+	}
+
+}
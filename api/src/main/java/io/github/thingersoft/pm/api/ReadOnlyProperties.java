@@ -0,0 +1,236 @@
+package io.github.thingersoft.pm.api;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * {@link Properties} view of an immutable properties map, for the methods whose signature predates snapshots.<br>
+ * Reads are delegated to the backing map, so the view holds no copy of the entries and never changes, while every mutator throws
+ * {@link UnsupportedOperationException}.<br>
+ * Clones and serialized forms are plain modifiable {@link Properties} copies.
+ */
+final class ReadOnlyProperties extends Properties {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient Map<String, String> stringProperties;
+	// same entries, typed as the Hashtable methods expect
+	private final transient Map<Object, Object> properties;
+
+	/**
+	 * @param properties
+	 * immutable map backing the view
+	 */
+	ReadOnlyProperties(Map<String, String> properties) {
+		stringProperties = Collections.unmodifiableMap(properties);
+		this.properties = Collections.<Object, Object> unmodifiableMap(properties);
+	}
+
+	@Override
+	public String getProperty(String key) {
+		return stringProperties.get(key);
+	}
+
+	@Override
+	public String getProperty(String key, String defaultValue) {
+		String value = getProperty(key);
+		return value != null ? value : defaultValue;
+	}
+
+	@Override
+	public Enumeration<?> propertyNames() {
+		return keys();
+	}
+
+	@Override
+	public Set<String> stringPropertyNames() {
+		return stringProperties.keySet();
+	}
+
+	@Override
+	public int size() {
+		return properties.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return properties.isEmpty();
+	}
+
+	@Override
+	public Enumeration<Object> keys() {
+		return Collections.enumeration(properties.keySet());
+	}
+
+	@Override
+	public Enumeration<Object> elements() {
+		return Collections.enumeration(properties.values());
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		return properties.containsValue(value);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return properties.containsValue(value);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return properties.containsKey(key);
+	}
+
+	@Override
+	public Object get(Object key) {
+		return properties.get(key);
+	}
+
+	@Override
+	public Object getOrDefault(Object key, Object defaultValue) {
+		Object value = properties.get(key);
+		return value != null ? value : defaultValue;
+	}
+
+	@Override
+	public Set<Object> keySet() {
+		return properties.keySet();
+	}
+
+	@Override
+	public Set<Map.Entry<Object, Object>> entrySet() {
+		return properties.entrySet();
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return properties.values();
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super Object, ? super Object> action) {
+		properties.forEach(action);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o == this || properties.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return properties.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return properties.toString();
+	}
+
+	@Override
+	public Object clone() {
+		Properties clone = new Properties();
+		clone.putAll(properties);
+		return clone;
+	}
+
+	private Object writeReplace() {
+		return clone();
+	}
+
+	@Override
+	public Object setProperty(String key, String value) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void load(Reader reader) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void load(InputStream inStream) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void loadFromXML(InputStream in) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object put(Object key, Object value) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void putAll(Map<?, ?> t) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object remove(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object putIfAbsent(Object key, Object value) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean replace(Object key, Object oldValue, Object newValue) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object replace(Object key, Object value) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		throw new UnsupportedOperationException();
+	}
+
+}
@@ -0,0 +1,288 @@
+package io.github.thingersoft.pm.api;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of properties sorted by key, made of a shared sorted base and a small sorted overlay of the entries changed since the
+ * base was built.<br>
+ * Merging copies the overlay only, so that an update costs in proportion to the changed entries instead of sorting the whole map again.
+ * The overlay is compacted into a new base once it outgrows a threshold proportional to the square root of the base size, and compactions
+ * copy the already sorted base in linear time.<br>
+ * Range views merge the base and overlay entries within their bounds while being iterated.<br>
+ * Off-heap entries are indexed by a base sorting their offsets in place, which is never compacted: snapshots index the new off-heap map
+ * instead, once their entries compact the previous one.
+ */
+final class SortedPropertiesIndex {
+
+	private static final int MIN_COMPACTION_THRESHOLD = 64;
+	private static final int COMPACTION_THRESHOLD_FACTOR = 4;
+	// marks entries of the base removed by the overlay, compared by identity
+	private static final String REMOVED = new String("");
+
+	private final SortedMap<String, String> base;
+	private final TreeMap<String, String> overlay;
+
+	private SortedPropertiesIndex(SortedMap<String, String> base, TreeMap<String, String> overlay) {
+		this.base = base;
+		this.overlay = overlay;
+	}
+
+	/**
+	 * @param properties
+	 * entries to be indexed
+	 *
+	 * @return
+	 * an index of the provided entries, whose overlay holds the changes over off-heap entries if any
+	 */
+	static SortedPropertiesIndex of(Map<String, String> properties) {
+		Map<String, String> base = OverlayProperties.getBase(properties);
+		if (!(base instanceof OffHeapProperties)) {
+			return new SortedPropertiesIndex(new TreeMap<>(properties), new TreeMap<String, String>());
+		}
+		return new SortedPropertiesIndex(((OffHeapProperties) base).sort(), new TreeMap<String, String>())
+				.merge(OverlayProperties.getChangedProperties(properties), OverlayProperties.getRemovedKeys(properties));
+	}
+
+	/**
+	 * Builds a new index made of the current entries overridden by the provided changes.
+	 *
+	 * @param changedProperties
+	 * entries to be added or replaced
+	 * @param removedKeys
+	 * keys of current entries to be removed, not among the changed ones
+	 *
+	 * @return
+	 * an index sharing the current base, or a compacted index when the overlay grows too large
+	 */
+	SortedPropertiesIndex merge(Map<String, String> changedProperties, Set<String> removedKeys) {
+		TreeMap<String, String> mergedOverlay = new TreeMap<>(overlay);
+		mergedOverlay.putAll(changedProperties);
+		for (String removedKey : removedKeys) {
+			if (base.containsKey(removedKey)) {
+				mergedOverlay.put(removedKey, REMOVED);
+			} else {
+				mergedOverlay.remove(removedKey);
+			}
+		}
+
+		if (!(base instanceof TreeMap) || mergedOverlay.size() <= Math.max(MIN_COMPACTION_THRESHOLD, COMPACTION_THRESHOLD_FACTOR * (int) Math.sqrt(base.size()))) {
+			return new SortedPropertiesIndex(base, mergedOverlay);
+		}
+		TreeMap<String, String> compactedBase = new TreeMap<>(base);
+		for (Entry<String, String> overlayEntry : mergedOverlay.entrySet()) {
+			if (overlayEntry.getValue() == REMOVED) {
+				compactedBase.remove(overlayEntry.getKey());
+			} else {
+				compactedBase.put(overlayEntry.getKey(), overlayEntry.getValue());
+			}
+		}
+		return new SortedPropertiesIndex(compactedBase, new TreeMap<String, String>());
+	}
+
+	/**
+	 * @param fromKey
+	 * lowest key, inclusive
+	 * @param toKey
+	 * highest key, exclusive, {@code null} for no upper bound
+	 *
+	 * @return
+	 * a view of the indexed entries within the provided range
+	 *
+	 * @throws IllegalArgumentException
+	 * if {@code fromKey} is greater than {@code toKey}
+	 */
+	SortedMap<String, String> subMap(String fromKey, String toKey) {
+		if (toKey != null && fromKey.compareTo(toKey) > 0) {
+			throw new IllegalArgumentException("fromKey > toKey");
+		}
+		return new RangeView(fromKey, toKey);
+	}
+
+	/**
+	 * Sorted view of the entries whose keys are within a range, bounds being {@code null} when missing.
+	 */
+	private final class RangeView extends AbstractMap<String, String> implements SortedMap<String, String> {
+
+		private final String fromKey;
+		private final String toKey;
+		// counted on first request, racing threads count the same entries
+		private int size = -1;
+
+		private RangeView(String fromKey, String toKey) {
+			this.fromKey = fromKey;
+			this.toKey = toKey;
+		}
+
+		private SortedMap<String, String> range(SortedMap<String, String> map) {
+			if (fromKey == null) {
+				return toKey == null ? map : map.headMap(toKey);
+			}
+			return toKey == null ? map.tailMap(fromKey) : map.subMap(fromKey, toKey);
+		}
+
+		private boolean inRange(String key) {
+			return (fromKey == null || key.compareTo(fromKey) >= 0) && (toKey == null || key.compareTo(toKey) < 0);
+		}
+
+		private String checkBound(String key) {
+			if ((fromKey != null && key.compareTo(fromKey) < 0) || (toKey != null && key.compareTo(toKey) > 0)) {
+				throw new IllegalArgumentException("key out of range");
+			}
+			return key;
+		}
+
+		@Override
+		public String get(Object key) {
+			if (!(key instanceof String) || !inRange((String) key)) {
+				return null;
+			}
+			String value = overlay.get(key);
+			if (value != null) {
+				return value == REMOVED ? null : value;
+			}
+			return base.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			if (size < 0) {
+				int count = 0;
+				for (Iterator<Entry<String, String>> iterator = entrySet().iterator(); iterator.hasNext(); iterator.next()) {
+					count++;
+				}
+				size = count;
+			}
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !entrySet().iterator().hasNext();
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			return new AbstractSet<Entry<String, String>>() {
+
+				@Override
+				public Iterator<Entry<String, String>> iterator() {
+					return new Iterator<Entry<String, String>>() {
+
+						private final Iterator<Entry<String, String>> overlayIterator = range(overlay).entrySet().iterator();
+						private final Iterator<Entry<String, String>> baseIterator = range(base).entrySet().iterator();
+						private Entry<String, String> overlayEntry = nextEntry(overlayIterator);
+						private Entry<String, String> baseEntry = nextEntry(baseIterator);
+						private Entry<String, String> next = advance();
+
+						private Entry<String, String> nextEntry(Iterator<Entry<String, String>> iterator) {
+							return iterator.hasNext() ? iterator.next() : null;
+						}
+
+						// walks both ranges in key order, overlay entries shadowing base ones with the same key
+						private Entry<String, String> advance() {
+							while (overlayEntry != null || baseEntry != null) {
+								int comparison = overlayEntry == null ? 1 : baseEntry == null ? -1 : overlayEntry.getKey().compareTo(baseEntry.getKey());
+								if (comparison > 0) {
+									Entry<String, String> current = baseEntry;
+									baseEntry = nextEntry(baseIterator);
+									return current;
+								}
+								Entry<String, String> current = overlayEntry;
+								overlayEntry = nextEntry(overlayIterator);
+								if (comparison == 0) {
+									baseEntry = nextEntry(baseIterator);
+								}
+								if (current.getValue() != REMOVED) {
+									return current;
+								}
+							}
+							return null;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return next != null;
+						}
+
+						@Override
+						public Entry<String, String> next() {
+							if (next == null) {
+								throw new NoSuchElementException();
+							}
+							Entry<String, String> current = next;
+							next = advance();
+							return current;
+						}
+
+					};
+				}
+
+				@Override
+				public int size() {
+					return RangeView.this.size();
+				}
+
+			};
+		}
+
+		@Override
+		public Comparator<? super String> comparator() {
+			return null;
+		}
+
+		@Override
+		public SortedMap<String, String> subMap(String fromKey, String toKey) {
+			if (checkBound(fromKey).compareTo(checkBound(toKey)) > 0) {
+				throw new IllegalArgumentException("fromKey > toKey");
+			}
+			return new RangeView(fromKey, toKey);
+		}
+
+		@Override
+		public SortedMap<String, String> headMap(String toKey) {
+			return new RangeView(fromKey, checkBound(toKey));
+		}
+
+		@Override
+		public SortedMap<String, String> tailMap(String fromKey) {
+			return new RangeView(checkBound(fromKey), toKey);
+		}
+
+		@Override
+		public String firstKey() {
+			Iterator<Entry<String, String>> iterator = entrySet().iterator();
+			if (!iterator.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return iterator.next().getKey();
+		}
+
+		@Override
+		public String lastKey() {
+			String lastKey = null;
+			for (Entry<String, String> entry : entrySet()) {
+				lastKey = entry.getKey();
+			}
+			if (lastKey == null) {
+				throw new NoSuchElementException();
+			}
+			return lastKey;
+		}
+
+	}
+
+}
@@ -64,4 +64,11 @@ public @interface Properties {
 	 */
 	String obfuscatedPropertyPlaceholder() default "";
 
+	/**
+	 * @return compiled properties file system location
+	 * 
+	 * @see PropertiesStoreOptions#setCompiledPropertiesLocation(String)
+	 */
+	String compiledPropertiesLocation() default "";
+
 }
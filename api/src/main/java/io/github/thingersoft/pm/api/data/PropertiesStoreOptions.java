@@ -1,10 +1,17 @@
 package io.github.thingersoft.pm.api.data;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 
+import io.github.thingersoft.pm.api.PropertiesChangeListener;
 import io.github.thingersoft.pm.api.PropertiesStore;
 
 /**
@@ -12,10 +19,22 @@ import io.github.thingersoft.pm.api.PropertiesStore;
  */
 public class PropertiesStoreOptions {
 
-	private String datePattern = new SimpleDateFormat().toPattern();
-	private Locale locale = Locale.getDefault();
+	private volatile String datePattern = new SimpleDateFormat().toPattern();
+	private volatile Locale locale = Locale.getDefault();
 	private boolean hotReload = true;
+	private long pollInterval = 1000;
+	private long reloadQuietPeriod = 200;
+	private Executor listenersExecutor;
+	private boolean classpathScan = false;
+	private Charset charset = StandardCharsets.ISO_8859_1;
+	private StorageMode storageMode = StorageMode.HEAP;
+	private boolean accessTracking = false;
+	private int accessSamplingInterval = 16;
+	private boolean interpolation = false;
+	private String compiledPropertiesLocation;
 	private String obfuscatedPropertyPattern;
+	private Pattern compiledObfuscatedPropertyPattern;
+	private volatile DateFormats dateFormats;
 	private String obfuscatedPropertyPlaceholder = "******";
 
 	/**
@@ -43,7 +62,8 @@ public class PropertiesStoreOptions {
 	}
 
 	/**
-	 * Sets the pattern to be used for dates parsing
+	 * Sets the pattern to be used for dates parsing.<br>
+	 * The pattern is interpreted by {@link SimpleDateFormat}, leniently, and applies to every date and time type.
 	 * 
 	 * @param datePattern pattern
 	 */
@@ -69,7 +89,7 @@ public class PropertiesStoreOptions {
 	 */
 	public void setLocale(String language) {
 		if (StringUtils.isNotBlank(language)) {
-			this.locale = new Locale(language);
+			setLocale(new Locale(language));
 		}
 	}
 
@@ -82,6 +102,121 @@ public class PropertiesStoreOptions {
 		this.hotReload = hotReload;
 	}
 
+	/**
+	 * Sets the interval between properties files checks, used when the file system can't notify changes natively
+	 * 
+	 * @param pollInterval interval in milliseconds
+	 */
+	public void setPollInterval(long pollInterval) {
+		this.pollInterval = pollInterval;
+	}
+
+	/**
+	 * Sets how long a properties file must stay unchanged before being reloaded, 
+	 * so that multiple changes written in a short time span trigger a single reload
+	 * 
+	 * @param reloadQuietPeriod quiet period in milliseconds
+	 */
+	public void setReloadQuietPeriod(long reloadQuietPeriod) {
+		this.reloadQuietPeriod = reloadQuietPeriod;
+	}
+
+	/**
+	 * Sets the executor running {@link PropertiesChangeListener} notifications.<br>
+	 * When not set a single daemon thread shared by all listeners is used.
+	 * 
+	 * @param listenersExecutor listeners executor
+	 */
+	public void setListenersExecutor(Executor listenersExecutor) {
+		this.listenersExecutor = listenersExecutor;
+	}
+
+	/**
+	 * Enables scanning the whole classpath for {@link io.github.thingersoft.pm.api.annotations.Properties} annotated classes 
+	 * when no index has been generated by the maven plugin enhance goal.<br>
+	 * Must be set before the first access to {@link PropertiesStore}.
+	 * 
+	 * @param classpathScan classpath scan flag
+	 * 
+	 * @see PropertiesStore#ANNOTATED_CLASSES_INDEX
+	 */
+	public void setClasspathScan(boolean classpathScan) {
+		this.classpathScan = classpathScan;
+	}
+
+	/**
+	 * Sets the encoding of properties files.<br>
+	 * Defaults to ISO-8859-1, as {@link java.util.Properties#load(java.io.InputStream)} does, characters outside of it can be written as
+	 * unicode escapes. Set it to UTF-8 to read files written as plain UTF-8 text.
+	 * 
+	 * @param charset properties files encoding
+	 */
+	public void setCharset(Charset charset) {
+		this.charset = charset;
+	}
+
+	/**
+	 * Sets where loaded properties are kept, applying from the next update
+	 * 
+	 * @param storageMode storage mode
+	 */
+	public void setStorageMode(StorageMode storageMode) {
+		this.storageMode = storageMode;
+	}
+
+	/**
+	 * Enables counting reads of each property, so that hot and never read properties can be found.<br>
+	 * Adds a random number draw to each successful read, and a counter lookup to sampled ones.
+	 * 
+	 * @param accessTracking access tracking flag
+	 * 
+	 * @see PropertiesStore#getMostReadProperties(int)
+	 * @see PropertiesStore#getUnreadProperties()
+	 * @see #setAccessSamplingInterval(int)
+	 */
+	public void setAccessTracking(boolean accessTracking) {
+		this.accessTracking = accessTracking;
+	}
+
+	/**
+	 * Sets how many reads are counted as one, on average, when {@code accessTracking} is enabled.<br>
+	 * Larger intervals make reads cheaper and counts less accurate: properties read only a few times may be reported as never read.
+	 * Defaults to 16, 1 counts every read exactly.
+	 * 
+	 * @param accessSamplingInterval sampling interval, rounded up to a power of two
+	 * 
+	 * @see #setAccessTracking(boolean)
+	 */
+	public void setAccessSamplingInterval(int accessSamplingInterval) {
+		this.accessSamplingInterval = accessSamplingInterval <= 1 ? 1 : Integer.highestOneBit(accessSamplingInterval - 1) << 1;
+	}
+
+	/**
+	 * Enables resolution of {@code ${key}} and {@code ${key:default}} placeholders within loaded values, applying from the next update.<br>
+	 * Placeholders refer to other properties, falling back to system properties, environment variables and then to their default.
+	 * A load is rejected when it contains a reference cycle or a placeholder that can't be resolved.
+	 * 
+	 * @param interpolation interpolation flag
+	 */
+	public void setInterpolation(boolean interpolation) {
+		this.interpolation = interpolation;
+	}
+
+	/**
+	 * Sets the location of the binary artifact written by the maven plugin {@code compile-properties} goal.<br>
+	 * Files loaded afterwards whose content didn't change since compiled are taken from the memory mapped artifact instead of being parsed,
+	 * while changed files are parsed from their text. Reloads always parse text.
+	 * 
+	 * @param compiledPropertiesLocation compiled properties file system location
+	 * 
+	 * @see io.github.thingersoft.pm.api.CompiledProperties
+	 */
+	public void setCompiledPropertiesLocation(String compiledPropertiesLocation) {
+		if (StringUtils.isNotBlank(compiledPropertiesLocation)) {
+			this.compiledPropertiesLocation = compiledPropertiesLocation;
+		}
+	}
+
 	public String getObfuscatedPropertyPlaceholder() {
 		return obfuscatedPropertyPlaceholder;
 	}
@@ -98,8 +233,125 @@ public class PropertiesStoreOptions {
 		return locale;
 	}
 
+	/**
+	 * Checks whether a property value should be obfuscated, compiling the {@code obfuscatedPropertyPattern} only once.
+	 * 
+	 * @param key property key
+	 * 
+	 * @return {@code true} if the key matches the {@code obfuscatedPropertyPattern}
+	 * 
+	 * @see #setObfuscatedPropertyPattern(String)
+	 */
+	public boolean isObfuscatedProperty(String key) {
+		if (obfuscatedPropertyPattern == null) {
+			return false;
+		}
+		Pattern pattern = compiledObfuscatedPropertyPattern;
+		if (pattern == null || !pattern.pattern().equals(obfuscatedPropertyPattern)) {
+			pattern = Pattern.compile(obfuscatedPropertyPattern);
+			compiledObfuscatedPropertyPattern = pattern;
+		}
+		return pattern.matcher(key).matches();
+	}
+
+	/**
+	 * Returns the calling thread's {@link SimpleDateFormat} built from {@code datePattern} and {@code locale}.<br>
+	 * The format is built only once for each pattern and locale combination, then cloned once per thread as it isn't thread safe.
+	 * 
+	 * @return the date format of the calling thread
+	 * 
+	 * @see #setDatePattern(String)
+	 * @see #setLocale(Locale)
+	 */
+	public DateFormat getDateFormat() {
+		return getDateFormat(datePattern, locale);
+	}
+
+	/**
+	 * Returns the calling thread's {@link SimpleDateFormat} built from the provided pattern and locale, read once by callers caching what
+	 * they parse, so that their values and format always agree.<br>
+	 * Formats are cached for the last pattern and locale combination requested, compared by value.
+	 * 
+	 * @param datePattern pattern
+	 * @param locale locale
+	 * 
+	 * @return the date format of the calling thread
+	 * 
+	 * @see #getDateFormat()
+	 */
+	public DateFormat getDateFormat(String datePattern, Locale locale) {
+		DateFormats formats = dateFormats;
+		if (formats == null || !formats.datePattern.equals(datePattern) || !Objects.equals(formats.locale, locale)) {
+			formats = new DateFormats(datePattern, locale);
+			dateFormats = formats;
+		}
+		return formats.get();
+	}
+
 	public boolean isHotReload() {
 		return hotReload;
 	}
 
+	public long getPollInterval() {
+		return pollInterval;
+	}
+
+	public long getReloadQuietPeriod() {
+		return reloadQuietPeriod;
+	}
+
+	public Executor getListenersExecutor() {
+		return listenersExecutor;
+	}
+
+	public boolean isClasspathScan() {
+		return classpathScan;
+	}
+
+	public Charset getCharset() {
+		return charset;
+	}
+
+	public StorageMode getStorageMode() {
+		return storageMode;
+	}
+
+	public boolean isAccessTracking() {
+		return accessTracking;
+	}
+
+	public int getAccessSamplingInterval() {
+		return accessSamplingInterval;
+	}
+
+	public boolean isInterpolation() {
+		return interpolation;
+	}
+
+	public String getCompiledPropertiesLocation() {
+		return compiledPropertiesLocation;
+	}
+
+	/**
+	 * Clones of a format prototype, one per thread as formats aren't thread safe.
+	 */
+	private static final class DateFormats extends ThreadLocal<DateFormat> {
+
+		private final String datePattern;
+		private final Locale locale;
+		private final DateFormat prototype;
+
+		private DateFormats(String datePattern, Locale locale) {
+			this.datePattern = datePattern;
+			this.locale = locale;
+			prototype = new SimpleDateFormat(datePattern, locale);
+		}
+
+		@Override
+		protected DateFormat initialValue() {
+			return (DateFormat) prototype.clone();
+		}
+
+	}
+
 }
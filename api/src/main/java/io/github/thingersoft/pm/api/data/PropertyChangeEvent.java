@@ -0,0 +1,38 @@
+package io.github.thingersoft.pm.api.data;
+
+import io.github.thingersoft.pm.api.PropertiesChangeListener;
+
+/**
+ * Describes the change of a single property value, as notified to {@link PropertiesChangeListener}s.<br>
+ * A {@code null} old value means that the property has been added, a {@code null} new value that it has been removed.
+ */
+public final class PropertyChangeEvent {
+
+	private final String key;
+	private final String oldValue;
+	private final String newValue;
+
+	public PropertyChangeEvent(String key, String oldValue, String newValue) {
+		this.key = key;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public String getOldValue() {
+		return oldValue;
+	}
+
+	public String getNewValue() {
+		return newValue;
+	}
+
+	@Override
+	public String toString() {
+		return "PropertyChangeEvent [key=" + key + ", oldValue=" + oldValue + ", newValue=" + newValue + "]";
+	}
+
+}
@@ -0,0 +1,60 @@
+package io.github.thingersoft.pm.api.data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defines when a {@link io.github.thingersoft.pm.api.PropertySource} gets fetched again after being added.
+ */
+public final class RefreshStrategy {
+
+	private static final RefreshStrategy NEVER = new RefreshStrategy(0);
+
+	private final long delayMillis;
+
+	private RefreshStrategy(long delayMillis) {
+		this.delayMillis = delayMillis;
+	}
+
+	/**
+	 * @return
+	 * a strategy fetching the source once, when added
+	 */
+	public static RefreshStrategy never() {
+		return NEVER;
+	}
+
+	/**
+	 * Creates a strategy fetching the source again after the provided delay from the end of the previous fetch.<br>
+	 * Fetches of the same source never overlap, so that a slow source just gets refreshed less often.
+	 * Failed fetches keep the previous properties and are retried after the same delay.
+	 *
+	 * @param delay
+	 * delay between the end of a fetch and the start of the next one
+	 * @param unit
+	 * delay time unit
+	 *
+	 * @return
+	 * a periodic strategy
+	 */
+	public static RefreshStrategy fixedDelay(long delay, TimeUnit unit) {
+		long delayMillis = unit.toMillis(delay);
+		if (delayMillis <= 0) {
+			throw new IllegalArgumentException("Refresh delay must be positive");
+		}
+		return new RefreshStrategy(delayMillis);
+	}
+
+	public boolean isPeriodic() {
+		return delayMillis > 0;
+	}
+
+	public long getDelayMillis() {
+		return delayMillis;
+	}
+
+	@Override
+	public String toString() {
+		return isPeriodic() ? "every " + delayMillis + " ms" : "never";
+	}
+
+}
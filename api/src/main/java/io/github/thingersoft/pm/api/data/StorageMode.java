@@ -0,0 +1,26 @@
+package io.github.thingersoft.pm.api.data;
+
+/**
+ * Defines where {@link io.github.thingersoft.pm.api.PropertiesStore} keeps loaded properties.
+ */
+public enum StorageMode {
+
+	/**
+	 * Properties are kept as strings in a heap hash map.
+	 */
+	HEAP,
+
+	/**
+	 * Properties are kept as UTF-8 bytes in direct buffers, outside of the heap.<br>
+	 * Suited for millions of keys loaded from a single file or source without interpolation: heap usage and garbage collection work then
+	 * don't grow with the number of properties, while each read decodes the returned value. When several files are loaded or interpolation is
+	 * enabled, each file also keeps its parsed properties on heap, so that reloads can resolve overrides.<br>
+	 * Prefix and range queries sort the offsets of the off-heap entries into another direct buffer, sorted again on the first query following
+	 * a reload that compacts the entries.<br>
+	 * Reloads don't free the buffers they replace, as readers may still hold a previous snapshot: those buffers are released by the garbage
+	 * collector once no snapshot references them, and count against {@code -XX:MaxDirectMemorySize} until then. It defaults to the maximum
+	 * heap size.
+	 */
+	OFF_HEAP
+
+}
@@ -1,29 +1,249 @@
 package io.github.thingersoft.pm.api.data;
 
 import java.math.BigDecimal;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
 
 public enum SupportedTypes {
 
-	STRING(String.class), INTEGER(Integer.class), LONG(Long.class), BIGDECIMAL(BigDecimal.class), FLOAT(Float.class), DOUBLE(Double.class), DATE(Date.class);
+	STRING(String.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return value;
+		}
+	},
+	INTEGER(Integer.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Integer.valueOf(value);
+		}
+	},
+	LONG(Long.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Long.valueOf(value);
+		}
+	},
+	BIGDECIMAL(BigDecimal.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return new BigDecimal(value);
+		}
+	},
+	FLOAT(Float.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Float.valueOf(value);
+		}
+	},
+	DOUBLE(Double.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Double.valueOf(value);
+		}
+	},
+	DATE(Date.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Date.from(parseZonedDateTime(value, dateFormat).toInstant());
+		}
+	},
+	BOOLEAN(Boolean.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return parseBoolean(value);
+		}
+	},
+	PRIMITIVE_INT(int.class, 0) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Integer.valueOf(value);
+		}
+	},
+	PRIMITIVE_LONG(long.class, 0L) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Long.valueOf(value);
+		}
+	},
+	PRIMITIVE_FLOAT(float.class, 0F) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Float.valueOf(value);
+		}
+	},
+	PRIMITIVE_DOUBLE(double.class, 0D) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return Double.valueOf(value);
+		}
+	},
+	PRIMITIVE_BOOLEAN(boolean.class, false) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return parseBoolean(value);
+		}
+	},
+	INSTANT(Instant.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return parseZonedDateTime(value, dateFormat).toInstant();
+		}
+	},
+	LOCALDATE(LocalDate.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return parseZonedDateTime(value, dateFormat).toLocalDate();
+		}
+	},
+	LOCALDATETIME(LocalDateTime.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return parseZonedDateTime(value, dateFormat).toLocalDateTime();
+		}
+	},
+	ZONEDDATETIME(ZonedDateTime.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			return parseZonedDateTime(value, dateFormat);
+		}
+	},
+	DURATION(Duration.class) {
+		@Override
+		public Object convert(String value, DateFormat dateFormat) {
+			try {
+				return Duration.parse(value.trim());
+			} catch (DateTimeParseException e) {
+				throw new IllegalArgumentException("Can't parse duration property", e);
+			}
+		}
+	};
 
-	public static SupportedTypes getSupportedType(Class<?> clazz) {
+	private static Boolean parseBoolean(String value) {
+		if (Boolean.TRUE.toString().equalsIgnoreCase(value)) {
+			return Boolean.TRUE;
+		} else if (Boolean.FALSE.toString().equalsIgnoreCase(value)) {
+			return Boolean.FALSE;
+		}
+		throw new IllegalArgumentException("Can't parse boolean property: " + value);
+	}
+
+	/**
+	 * Parses a date through the provided format.<br>
+	 * Values are zoned at the format time zone, which parsed zone names override, the system default one otherwise.
+	 */
+	private static ZonedDateTime parseZonedDateTime(String value, DateFormat dateFormat) {
+		TimeZone timeZone = dateFormat.getTimeZone();
+		try {
+			Date date = dateFormat.parse(value);
+			return ZonedDateTime.ofInstant(date.toInstant(), dateFormat.getTimeZone().toZoneId());
+		} catch (ParseException e) {
+			throw new IllegalArgumentException("Can't parse date property", e);
+		} finally {
+			// parsed zone names replace the format time zone, which is reused by the next parsing of the thread
+			dateFormat.setTimeZone(timeZone);
+		}
+	}
+
+	private static final Map<Class<?>, SupportedTypes> TYPES_BY_CLASS = new HashMap<>();
+
+	static {
 		for (SupportedTypes supportedType : SupportedTypes.values()) {
-			if (supportedType.getClazz().equals(clazz)) {
-				return supportedType;
-			}
+			TYPES_BY_CLASS.put(supportedType.getClazz(), supportedType);
 		}
-		return null;
+	}
+
+	public static SupportedTypes getSupportedType(Class<?> clazz) {
+		return TYPES_BY_CLASS.get(clazz);
 	}
 
 	private Class<?> clazz;
+	private Object defaultValue;
 
 	private SupportedTypes(Class<?> clazz) {
+		this(clazz, null);
+	}
+
+	private SupportedTypes(Class<?> clazz, Object defaultValue) {
 		this.clazz = clazz;
+		this.defaultValue = defaultValue;
 	}
 
 	public Class<?> getClazz() {
 		return clazz;
 	}
 
+	/**
+	 * @return
+	 * the value of missing properties, {@code null} for reference types and zero or {@code false} for primitive ones
+	 */
+	public Object getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * @return
+	 * the reference type sharing this type conversion, this type itself if not primitive
+	 */
+	public SupportedTypes getWrapperType() {
+		switch (this) {
+		case PRIMITIVE_INT:
+			return INTEGER;
+		case PRIMITIVE_LONG:
+			return LONG;
+		case PRIMITIVE_FLOAT:
+			return FLOAT;
+		case PRIMITIVE_DOUBLE:
+			return DOUBLE;
+		case PRIMITIVE_BOOLEAN:
+			return BOOLEAN;
+		default:
+			return this;
+		}
+	}
+
+	/**
+	 * Converts a property value to this type.
+	 * 
+	 * @param value
+	 * property value
+	 * @param options
+	 * options driving the conversion, such as date pattern and locale
+	 * 
+	 * @return
+	 * the converted value
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the value can't be converted
+	 */
+	public Object convert(String value, PropertiesStoreOptions options) throws IllegalArgumentException {
+		return convert(value, options.getDateFormat());
+	}
+
+	/**
+	 * Converts a property value to this type.
+	 * 
+	 * @param value
+	 * property value
+	 * @param dateFormat
+	 * format of date and time values, owned by the calling thread
+	 * 
+	 * @return
+	 * the converted value
+	 * 
+	 * @throws IllegalArgumentException
+	 * if the value can't be converted
+	 */
+	public abstract Object convert(String value, DateFormat dateFormat) throws IllegalArgumentException;
+
 }
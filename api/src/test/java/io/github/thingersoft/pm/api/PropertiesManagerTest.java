@@ -0,0 +1,157 @@
+package io.github.thingersoft.pm.api;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import io.github.thingersoft.pm.api.annotations.Properties;
+import io.github.thingersoft.pm.api.annotations.Property;
+import io.github.thingersoft.pm.api.data.PropertyChangeEvent;
+
+public class PropertiesManagerTest {
+
+	private static final String KEY = "tenant_key";
+
+	@Test
+	public void isolatedManagers() throws IOException, InterruptedException {
+		File tenant1File = writeProperties(File.createTempFile("tenant1_properties_file", null), KEY + "=1");
+		File tenant2File = writeProperties(File.createTempFile("tenant2_properties_file", null), KEY + "=2");
+		try (PropertiesManager tenant1 = new PropertiesManager(); PropertiesManager tenant2 = new PropertiesManager()) {
+			tenant1.getOptions().setReloadQuietPeriod(50);
+			tenant2.getOptions().setHotReload(false);
+			tenant1.loadProperties(tenant1File.getAbsolutePath());
+			tenant2.loadProperties(tenant2File.getAbsolutePath());
+			assertTrue(tenant1.getIntValue(KEY) == 1);
+			assertTrue(tenant2.getIntValue(KEY) == 2);
+			assertTrue(PropertiesStore.getProperty(KEY) == null);
+
+			final CountDownLatch reloadLatch = new CountDownLatch(1);
+			tenant1.subscribe(KEY, new PropertiesChangeListener() {
+				@Override
+				public void propertiesChanged(List<PropertyChangeEvent> changes) {
+					reloadLatch.countDown();
+				}
+			});
+			writeProperties(tenant1File, KEY + "=10");
+			assertTrue(reloadLatch.await(15, TimeUnit.SECONDS));
+			assertTrue(tenant1.getIntValue(KEY) == 10);
+			assertTrue(tenant2.getIntValue(KEY) == 2);
+		}
+	}
+
+	@Test
+	public void namedManagerMBeans() throws IOException, JMException {
+		File tenantFile = writeProperties(File.createTempFile("tenant_properties_file", null), KEY + "=1");
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		ObjectName storeName = new ObjectName(PropertiesStoreMXBean.OBJECT_NAME + ",store=" + ObjectName.quote("tenant"));
+		ObjectName locationName = new ObjectName(
+				PropertiesLocationMXBean.OBJECT_NAME_PREFIX + ObjectName.quote(tenantFile.getAbsolutePath()) + ",store=" + ObjectName.quote("tenant"));
+		try (PropertiesManager tenant = new PropertiesManager("tenant")) {
+			tenant.getOptions().setHotReload(false);
+			tenant.loadProperties(tenantFile.getAbsolutePath());
+			assertTrue((Integer) mbeanServer.getAttribute(storeName, "PropertiesCount") == 1);
+			assertTrue((Long) mbeanServer.getAttribute(locationName, "ReloadsCount") == 1);
+		}
+		assertTrue(!mbeanServer.isRegistered(storeName));
+		assertTrue(!mbeanServer.isRegistered(locationName));
+	}
+
+	@Test
+	public void compiledProperties() throws IOException {
+		File compiledFile = writeProperties(File.createTempFile("compiled_properties_file", null), KEY + "=1\nflag_key=true\nratio_key=0.5");
+		File changedFile = writeProperties(File.createTempFile("changed_properties_file", null), "changed_key=old");
+		File artifact = File.createTempFile("compiled_properties", ".bin");
+		artifact.deleteOnExit();
+		CompiledProperties.compile(Arrays.asList(compiledFile.getAbsolutePath(), changedFile.getAbsolutePath()), StandardCharsets.ISO_8859_1,
+				artifact.toPath());
+		writeProperties(changedFile, "changed_key=new");
+
+		CompiledProperties compiledProperties = CompiledProperties.open(artifact.toPath());
+		assertTrue(compiledProperties.isCompiledWith(StandardCharsets.ISO_8859_1));
+		CompiledProperties.Section section = compiledProperties.find(PropertiesManager.digest(ByteBuffer.wrap(Files.readAllBytes(compiledFile.toPath()))));
+		assertTrue(section.getProperties().get(KEY).equals("1"));
+		assertTrue(section.getParsedValues().get(KEY).equals(1L));
+		assertTrue(section.getParsedValues().get("flag_key").equals(Boolean.TRUE));
+		assertTrue(compiledProperties.find(PropertiesManager.digest(ByteBuffer.wrap(Files.readAllBytes(changedFile.toPath())))) == null);
+
+		try (PropertiesManager manager = new PropertiesManager()) {
+			manager.getOptions().setHotReload(false);
+			manager.getOptions().setCompiledPropertiesLocation(artifact.getAbsolutePath());
+			manager.loadProperties(compiledFile.getAbsolutePath(), changedFile.getAbsolutePath());
+			assertTrue(manager.getIntValue(KEY) == 1);
+			assertTrue(manager.getLongValue(KEY) == 1L);
+			assertTrue(manager.getBooleanValue("flag_key"));
+			assertTrue(manager.getDoubleValue("ratio_key") == 0.5);
+			assertTrue(manager.getProperty("changed_key").equals("new"));
+		}
+	}
+
+	@Test
+	public void generatedFieldsWriter() throws IOException {
+		File writtenFile = writeProperties(File.createTempFile("written_properties_file", null), KEY + "=5");
+		try (PropertiesManager manager = new PropertiesManager()) {
+			manager.initByAnnotatedClass(WrittenFields.class);
+			manager.getOptions().setHotReload(false);
+			int initialWrites = WrittenFieldsWriter.writes.get();
+			manager.loadProperties(writtenFile.getAbsolutePath());
+			assertTrue(WrittenFields.intField == 5);
+			assertTrue(WrittenFieldsWriter.writes.get() == initialWrites + 1);
+		}
+	}
+
+	@Properties
+	static class WrittenFields {
+
+		@Property(KEY)
+		static volatile int intField;
+
+	}
+
+	public static class WrittenFieldsWriter implements PropertyFieldsWriter {
+
+		private static final AtomicInteger writes = new AtomicInteger();
+
+		@Override
+		public Class<?> getMappedClass() {
+			return WrittenFields.class;
+		}
+
+		@Override
+		public int getFieldIndex(String fieldName) {
+			return fieldName.equals("intField") ? 0 : -1;
+		}
+
+		@Override
+		public void write(int fieldIndex, Object value) {
+			writes.incrementAndGet();
+			WrittenFields.intField = (Integer) value;
+		}
+
+	}
+
+	private static File writeProperties(File file, String content) throws IOException {
+		file.deleteOnExit();
+		try (FileOutputStream fos = new FileOutputStream(file)) {
+			fos.write(content.getBytes());
+		}
+		return file;
+	}
+
+}
@@ -0,0 +1,150 @@
+package io.github.thingersoft.pm.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class PropertiesParserTest {
+
+	private static final String[] SAMPLES = {
+			"",
+			"key=value",
+			"key = value  ",
+			"key:value\nkey2 : value2",
+			"key value",
+			"key\t\f=\t value",
+			"key==value",
+			"key:=value",
+			"key",
+			"=value",
+			"  # comment\n! comment\nkey=value",
+			"key=value\\\\\nother=1",
+			"key=value\\",
+			"\\",
+			"#",
+			"esc\\=aped\\:key\\ =va\\lue",
+			"key=\\t\\n\\r\\f\\\\\\u0041\\u00e9",
+			"k\\u0065y=\\u20AC",
+			"   \n\n\r\n   key=value\n   ",
+			"key=valué",
+	};
+
+	/**
+	 * Line continuations, which {@link Properties#load} handles differently before Java 9, along with their Java 9+ entries.
+	 */
+	private static final Object[][] CONTINUATION_SAMPLES = {
+			{ "key=value\\\n    continued", entries("key", "valuecontinued") },
+			{ "key=value\\\r\n\tcontinued\\\n", entries("key", "valuecontinued") },
+			{ "key=value\\\rcontinued\r\nother=1\rlast=2", entries("key", "valuecontinued", "other", "1", "last", "2") },
+			{ "key=value\\\n", entries("key", "value") },
+			{ "\\\n", entries("", "") },
+			{ "\\\n\n", entries() },
+			// Java 8 reads a "#not" key
+			{ "\\\n#not a comment=1", entries() },
+			{ "key=\\\n#value", entries("key", "#value") },
+			{ "# comment\\\nkey=value", entries("key", "value") },
+	};
+
+	private static final boolean JAVA_8 = System.getProperty("java.specification.version").startsWith("1.");
+	private static final Pattern LINE_CONTINUATION = Pattern.compile("\\\\[\r\n]");
+
+	@Test
+	public void samples() throws IOException {
+		for (String sample : SAMPLES) {
+			checkCompatibility(sample, StandardCharsets.ISO_8859_1);
+			checkCompatibility(sample, StandardCharsets.UTF_8);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void continuationSamples() {
+		for (Object[] sample : CONTINUATION_SAMPLES) {
+			checkParsing((String) sample[0], StandardCharsets.ISO_8859_1, (Map<String, String>) sample[1]);
+			checkParsing((String) sample[0], StandardCharsets.UTF_8, (Map<String, String>) sample[1]);
+		}
+	}
+
+	@Test
+	public void malformedEscape() {
+		for (String sample : new String[] { "key=\\u00", "key=\\uZZZZ", "\\u12=value" }) {
+			try {
+				PropertiesParser.parse(ByteBuffer.wrap(sample.getBytes(StandardCharsets.ISO_8859_1)), StandardCharsets.ISO_8859_1);
+				fail(sample);
+			} catch (IllegalArgumentException e) {
+				// expected, as Properties.load does
+			}
+		}
+	}
+
+	@Test
+	public void randomContent() throws IOException {
+		String alphabet = "ab= :\\\t\f\n\r#!u0é€";
+		Random random = new Random(42);
+		StringBuilder content = new StringBuilder();
+		for (int sample = 0; sample < 5000; sample++) {
+			content.setLength(0);
+			int length = random.nextInt(40);
+			for (int i = 0; i < length; i++) {
+				content.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			String text = content.toString();
+			if (text.contains("\\u")) {
+				// malformed escapes are checked separately
+				continue;
+			}
+			if (JAVA_8 && LINE_CONTINUATION.matcher(text).find()) {
+				// Java 8 Properties.load can't be used as a reference for line continuations
+				continue;
+			}
+			checkCompatibility(text, StandardCharsets.ISO_8859_1);
+			checkCompatibility(text, StandardCharsets.UTF_8);
+		}
+	}
+
+	private static void checkCompatibility(String text, Charset charset) throws IOException {
+		byte[] bytes = text.getBytes(charset);
+		Properties expected = new Properties();
+		if (charset.equals(StandardCharsets.ISO_8859_1)) {
+			expected.load(new ByteArrayInputStream(bytes));
+		} else {
+			expected.load(new InputStreamReader(new ByteArrayInputStream(bytes), charset));
+		}
+		Map<String, String> expectedMap = new HashMap<>();
+		for (Entry<Object, Object> entry : expected.entrySet()) {
+			expectedMap.put((String) entry.getKey(), (String) entry.getValue());
+		}
+		checkParsing(text, charset, expectedMap);
+	}
+
+	private static void checkParsing(String text, Charset charset, Map<String, String> expectedMap) {
+		byte[] bytes = text.getBytes(charset);
+		assertEquals(text, expectedMap, PropertiesParser.parse(ByteBuffer.wrap(bytes), charset));
+		ByteBuffer directContent = ByteBuffer.allocateDirect(bytes.length);
+		directContent.put(bytes).flip();
+		assertEquals(text, expectedMap, PropertiesParser.parse(directContent, charset));
+	}
+
+	private static Map<String, String> entries(String... keysAndValues) {
+		Map<String, String> entries = new HashMap<>();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			entries.put(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return entries;
+	}
+
+}
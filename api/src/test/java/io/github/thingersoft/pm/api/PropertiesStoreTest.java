@@ -1,20 +1,47 @@
 package io.github.thingersoft.pm.api;
 
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import io.github.thingersoft.pm.api.annotations.Property;
+import io.github.thingersoft.pm.api.data.PropertyChangeEvent;
+import io.github.thingersoft.pm.api.data.StorageMode;
 import io.github.thingersoft.pm.test.PropertiesTestUtility;
 
 public class PropertiesStoreTest {
@@ -62,6 +89,253 @@ public class PropertiesStoreTest {
 		}
 	}
 
+	@Test
+	public void loadDirectory() throws IOException {
+		PropertiesStore.getOptions().setHotReload(false);
+		File directory = Files.createTempDirectory("properties_directory").toFile();
+		directory.deleteOnExit();
+		writeProperties(new File(directory, "b.properties"), "precedence_key=b");
+		writeProperties(new File(directory, "a.properties"), "precedence_key=a\nfirst_file_key=a");
+		File overridingFile = File.createTempFile("overriding_properties_file", null);
+		writeProperties(overridingFile, "overridden_key=file");
+		writeProperties(new File(directory, "c.properties"), "overridden_key=c");
+
+		PropertiesStore.loadProperties(directory.getAbsolutePath(), overridingFile.getAbsolutePath());
+		assertTrue(PropertiesStore.getProperty("precedence_key").equals("b"));
+		assertTrue(PropertiesStore.getProperty("first_file_key").equals("a"));
+		assertTrue(PropertiesStore.getProperty("overridden_key").equals("file"));
+
+		// a broken file rejects the whole load
+		writeProperties(new File(directory, "a.properties"), "precedence_key=\\uZZZZ");
+		writeProperties(new File(directory, "b.properties"), "precedence_key=edited");
+		try {
+			PropertiesStore.loadProperties(directory.getAbsolutePath());
+			fail();
+		} catch (RuntimeException e) {
+			assertTrue(PropertiesStore.getProperty("precedence_key").equals("b"));
+		}
+	}
+
+	@Test
+	public void layersPrecedence() throws IOException {
+		PropertiesStore.getOptions().setHotReload(false);
+		File lowerFile = File.createTempFile("lower_properties_file", null);
+		File upperFile = File.createTempFile("upper_properties_file", null);
+		writeProperties(lowerFile, "shared_key=lower\nlower_key=lower");
+		StringBuilder upperContent = new StringBuilder("shared_key=upper");
+		for (int i = 0; i < 100; i++) {
+			upperContent.append("\nupper_key_").append(i).append("=").append(i);
+		}
+		writeProperties(upperFile, upperContent.toString());
+		PropertiesStore.loadProperties(lowerFile.getAbsolutePath(), upperFile.getAbsolutePath());
+		assertTrue(PropertiesStore.getProperties().size() == 102);
+
+		// reloading the lower file doesn't override the upper one
+		writeProperties(lowerFile, "shared_key=edited");
+		PropertiesStore.loadProperties(lowerFile.getAbsolutePath());
+		assertTrue(PropertiesStore.getProperty("shared_key").equals("upper"));
+		assertTrue(PropertiesStore.getProperty("lower_key") == null);
+		assertTrue(PropertiesStore.getProperties().size() == 101);
+
+		// keys removed from the upper file fall back to the lower one
+		writeProperties(upperFile, "upper_key_0=0");
+		PropertiesStore.loadProperties(upperFile.getAbsolutePath());
+		assertTrue(PropertiesStore.getProperty("shared_key").equals("edited"));
+		assertTrue(PropertiesStore.getProperty("upper_key_1") == null);
+		assertTrue(PropertiesStore.getProperties().size() == 2);
+		assertTrue(PropertiesStore.getPropertiesByPrefix("upper_key_").size() == 1);
+	}
+
+	@Test
+	public void hotReloadDirectory() throws IOException, InterruptedException {
+		PropertiesStore.getOptions().setHotReload(true);
+		PropertiesStore.getOptions().setReloadQuietPeriod(50);
+		try {
+			File directory = Files.createTempDirectory("watched_properties_directory").toFile();
+			directory.deleteOnExit();
+			File firstFile = new File(directory, "a.properties");
+			File secondFile = new File(directory, "b.properties");
+			writeProperties(firstFile, "first_key=a\nshared_key=a");
+			writeProperties(secondFile, "shared_key=b");
+			PropertiesStore.loadProperties(directory.getAbsolutePath());
+			assertTrue(PropertiesStore.getProperty("shared_key").equals("b"));
+
+			writeProperties(new File(directory, "c.properties"), "created_key=c");
+			assertTrue(awaitProperty("created_key", "c"));
+			assertTrue(PropertiesStore.getProperty("shared_key").equals("b"));
+
+			assertTrue(secondFile.delete());
+			assertTrue(awaitProperty("shared_key", "a"));
+			assertTrue(firstFile.delete());
+			assertTrue(awaitProperty("shared_key", null));
+			assertTrue(PropertiesStore.getProperty("first_key") == null);
+			assertTrue(PropertiesStore.getProperty("created_key").equals("c"));
+		} finally {
+			PropertiesStore.getOptions().setReloadQuietPeriod(200);
+		}
+	}
+
+	private static boolean awaitProperty(String key, String value) throws InterruptedException {
+		for (int i = 0; i < 150; i++) {
+			String currentValue = PropertiesStore.getProperty(key);
+			if (value == null ? currentValue == null : value.equals(currentValue)) {
+				return true;
+			}
+			Thread.sleep(100);
+		}
+		return false;
+	}
+
+	@Test
+	public void offHeapStorage() throws IOException {
+		PropertiesStore.getOptions().setStorageMode(StorageMode.OFF_HEAP);
+		try {
+			Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(false);
+			checkProperties(typedPropertiesFileEntry);
+
+			File overridingFile = File.createTempFile("overriding_properties_file", null);
+			writeProperties(overridingFile, PropertiesTestUtility.INTEGER_KEY + "=10\nunicode_k\\u00e9y=\\u20ac");
+			PropertiesStore.loadProperties(overridingFile.getAbsolutePath());
+			assertTrue(PropertiesStore.getInteger(PropertiesTestUtility.INTEGER_KEY) == 10);
+			assertTrue(PropertiesStore.getProperty("unicode_k\u00e9y").equals("\u20ac"));
+			assertTrue(PropertiesStore.getProperty("missing_key") == null);
+			assertTrue(PropertiesStore.getProperties().size() == typedPropertiesFileEntry.getValue().size() + 1);
+			assertTrue(PropertiesStore.getPropertiesByPrefix("string_").size() == 1);
+
+			// overridden values come back from the first file, whose layer shared the snapshot entries while it was the only one
+			writeProperties(overridingFile, "unicode_k\\u00e9y=\\u20ac");
+			PropertiesStore.loadProperties(overridingFile.getAbsolutePath());
+			assertTrue(PropertiesStore.getProperty(PropertiesTestUtility.INTEGER_KEY)
+					.equals(typedPropertiesFileEntry.getValue().getProperty(PropertiesTestUtility.INTEGER_KEY)));
+			assertTrue(PropertiesStore.getProperties().size() == typedPropertiesFileEntry.getValue().size() + 1);
+		} finally {
+			PropertiesStore.getOptions().setStorageMode(StorageMode.HEAP);
+		}
+	}
+
+	@Test
+	public void snapshotGeneration() throws IOException {
+		Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(false);
+		PropertiesSnapshot snapshot = PropertiesStore.getSnapshot();
+		long generation = PropertiesStore.getGeneration();
+		Integer integer = PropertiesStore.getInteger(PropertiesTestUtility.INTEGER_KEY);
+		assertTrue(snapshot.getGeneration() == generation);
+
+		PropertiesStore.loadProperties(typedPropertiesFileEntry.getKey());
+		assertTrue(PropertiesStore.getSnapshot() == snapshot);
+
+		File overridingFile = File.createTempFile("overriding_properties_file", null);
+		writeProperties(overridingFile, PropertiesTestUtility.INTEGER_KEY + "=10");
+		PropertiesStore.loadProperties(overridingFile.getAbsolutePath());
+		assertTrue(PropertiesStore.getGeneration() == generation + 1);
+		assertTrue(PropertiesStore.getIntValue(PropertiesTestUtility.INTEGER_KEY) == 10);
+		assertTrue(snapshot.getInteger(PropertiesTestUtility.INTEGER_KEY).equals(integer));
+		assertTrue(snapshot.getProperty(PropertiesTestUtility.STRING_KEY).equals(PropertiesStore.getProperty(PropertiesTestUtility.STRING_KEY)));
+
+		PropertiesStore.reset();
+		assertTrue(PropertiesStore.getGeneration() == generation + 2);
+		assertTrue(snapshot.getProperties().size() == typedPropertiesFileEntry.getValue().size());
+	}
+
+	@Test
+	public void interpolation() throws IOException {
+		PropertiesStore.getOptions().setHotReload(false);
+		PropertiesStore.getOptions().setInterpolation(true);
+		try {
+			File propertiesFile = File.createTempFile("interpolated_properties_file", null);
+			writeProperties(propertiesFile, "db.host=localhost\ndb.port=5432\ndb.url=jdbc:pg://${db.host}:${db.port}/app\n"
+					+ "db.pool_url=${db.url}?pool=${pm.test.missing:10}\nuser_home=${user.home}");
+			PropertiesStore.loadProperties(propertiesFile.getAbsolutePath());
+			assertTrue(PropertiesStore.getProperty("db.url").equals("jdbc:pg://localhost:5432/app"));
+			assertTrue(PropertiesStore.getProperty("db.pool_url").equals("jdbc:pg://localhost:5432/app?pool=10"));
+			assertTrue(PropertiesStore.getProperty("user_home").equals(System.getProperty("user.home")));
+
+			File overridingFile = File.createTempFile("overriding_properties_file", null);
+			writeProperties(overridingFile, "db.host=remote");
+			PropertiesStore.loadProperties(overridingFile.getAbsolutePath());
+			assertTrue(PropertiesStore.getProperty("db.pool_url").equals("jdbc:pg://remote:5432/app?pool=10"));
+
+			File cyclicFile = File.createTempFile("cyclic_properties_file", null);
+			writeProperties(cyclicFile, "db.host=${db.pool_url}");
+			try {
+				PropertiesStore.loadProperties(cyclicFile.getAbsolutePath());
+				fail();
+			} catch (RuntimeException e) {
+				assertTrue(e.getCause().getMessage().startsWith("Circular property reference"));
+			}
+			writeProperties(cyclicFile, "db.port=${pm.test.missing}");
+			try {
+				PropertiesStore.loadProperties(cyclicFile.getAbsolutePath());
+				fail();
+			} catch (RuntimeException e) {
+				// expected
+			}
+			assertTrue(PropertiesStore.getProperty("db.url").equals("jdbc:pg://remote:5432/app"));
+		} finally {
+			PropertiesStore.getOptions().setInterpolation(false);
+		}
+	}
+
+	@Test
+	public void accessTracking() {
+		PropertiesStore.getOptions().setAccessTracking(true);
+		PropertiesStore.getOptions().setAccessSamplingInterval(1);
+		try {
+			Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(false);
+			for (int i = 0; i < 3; i++) {
+				PropertiesStore.getProperty(PropertiesTestUtility.STRING_KEY);
+			}
+			PropertiesStore.getInteger(PropertiesTestUtility.INTEGER_KEY);
+			PropertiesStore.getIntValue(PropertiesTestUtility.INTEGER_KEY);
+			PropertiesStore.getProperty("missing_key");
+
+			Map<String, Long> mostRead = PropertiesStore.getMostReadProperties(10);
+			assertTrue(mostRead.size() == 2);
+			assertTrue(mostRead.keySet().iterator().next().equals(PropertiesTestUtility.STRING_KEY));
+			assertTrue(mostRead.get(PropertiesTestUtility.STRING_KEY) == 3);
+			assertTrue(mostRead.get(PropertiesTestUtility.INTEGER_KEY) == 2);
+			assertTrue(PropertiesStore.getMostReadProperties(1).size() == 1);
+
+			SortedSet<String> unread = PropertiesStore.getUnreadProperties();
+			assertTrue(unread.size() == typedPropertiesFileEntry.getValue().size() - 2);
+			assertTrue(!unread.contains(PropertiesTestUtility.STRING_KEY) && unread.contains(PropertiesTestUtility.BOOLEAN_KEY));
+
+			PropertiesStore.resetAccessCounters();
+			assertTrue(PropertiesStore.getMostReadProperties(10).isEmpty());
+		} finally {
+			PropertiesStore.getOptions().setAccessTracking(false);
+			PropertiesStore.getOptions().setAccessSamplingInterval(16);
+		}
+	}
+
+	@Test
+	public void metrics() throws IOException, JMException {
+		Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(false);
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		ObjectName storeName = new ObjectName(PropertiesStoreMXBean.OBJECT_NAME);
+		ObjectName locationName = new ObjectName(PropertiesLocationMXBean.OBJECT_NAME_PREFIX + ObjectName.quote(typedPropertiesFileEntry.getKey()));
+		assertTrue((Integer) mbeanServer.getAttribute(storeName, "PropertiesCount") == typedPropertiesFileEntry.getValue().size());
+		assertTrue((Long) mbeanServer.getAttribute(locationName, "ReloadsCount") == 1);
+		assertTrue((Integer) mbeanServer.getAttribute(locationName, "KeysCount") == typedPropertiesFileEntry.getValue().size());
+		assertTrue((Long) mbeanServer.getAttribute(locationName, "LastBytesRead") == new File(typedPropertiesFileEntry.getKey()).length());
+		assertTrue((Long) mbeanServer.getAttribute(locationName, "MillisSinceLastChange") >= 0);
+
+		File brokenFile = File.createTempFile("broken_properties_file", null);
+		writeProperties(brokenFile, "key=\\uZZZZ");
+		try {
+			PropertiesStore.loadProperties(brokenFile.getAbsolutePath());
+			fail();
+		} catch (RuntimeException e) {
+			// expected
+		}
+		ObjectName brokenLocationName = new ObjectName(PropertiesLocationMXBean.OBJECT_NAME_PREFIX + ObjectName.quote(brokenFile.getAbsolutePath()));
+		assertTrue((Long) mbeanServer.getAttribute(brokenLocationName, "FailedReloadsCount") == 1);
+		assertTrue((Long) mbeanServer.getAttribute(storeName, "FailedReloadsCount") == 1);
+
+		PropertiesStore.reset();
+		assertTrue(!mbeanServer.isRegistered(locationName));
+	}
+
 	@Test
 	public void hotReload() throws FileNotFoundException, IOException, InterruptedException {
 		Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(true);
@@ -74,6 +348,22 @@ public class PropertiesStoreTest {
 		checkProperties(typedPropertiesFileEntry);
 	}
 
+	@Test
+	public void hotReloadKeepsLastGoodProperties() throws FileNotFoundException, IOException, InterruptedException {
+		Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(true);
+		try {
+			try (FileOutputStream fos = new FileOutputStream(typedPropertiesFileEntry.getKey())) {
+				fos.write((PropertiesTestUtility.STRING_KEY + "=\\uZZZZ").getBytes());
+			}
+			Thread.sleep(PropertiesStore.getPollInterval() + 500);
+			checkProperties(typedPropertiesFileEntry);
+		} finally {
+			try (FileOutputStream fos = new FileOutputStream(typedPropertiesFileEntry.getKey())) {
+				typedPropertiesFileEntry.getValue().store(fos, null);
+			}
+		}
+	}
+
 	@Test
 	public void inject() {
 		loadTypedProperties(false);
@@ -84,6 +374,251 @@ public class PropertiesStoreTest {
 		assertTrue(PropertiesStore.getDouble(PropertiesTestUtility.DOUBLE_KEY).equals(PropertiesInjectionTest.doubleField));
 		assertTrue(PropertiesStore.getBigDecimal(PropertiesTestUtility.BIGDECIMAL_KEY).equals(PropertiesInjectionTest.bigDecimalField));
 		assertTrue(PropertiesStore.getDate(PropertiesTestUtility.DATE_KEY).equals(PropertiesInjectionTest.dateField));
+		assertTrue(PropertiesStore.getInstant(PropertiesTestUtility.DATE_KEY).equals(PropertiesInjectionTest.instantField));
+		assertTrue(PropertiesStore.getLocalDate(PropertiesTestUtility.DATE_KEY).equals(PropertiesInjectionTest.localDateField));
+		assertTrue(PropertiesStore.getLocalDateTime(PropertiesTestUtility.DATE_KEY).equals(PropertiesInjectionTest.localDateTimeField));
+		assertTrue(PropertiesStore.getZonedDateTime(PropertiesTestUtility.DATE_KEY).equals(PropertiesInjectionTest.zonedDateTimeField));
+		assertTrue(PropertiesStore.getDuration(PropertiesTestUtility.DURATION_KEY).equals(PropertiesInjectionTest.durationField));
+		assertTrue(PropertiesStore.getBoolean(PropertiesTestUtility.BOOLEAN_KEY).equals(PropertiesInjectionTest.booleanField));
+		assertTrue(PropertiesStore.getIntValue(PropertiesTestUtility.INTEGER_KEY) == PropertiesInjectionTest.intField);
+		assertTrue(PropertiesStore.getLongValue(PropertiesTestUtility.LONG_KEY) == PropertiesInjectionTest.primitiveLongField);
+		assertTrue(PropertiesStore.getFloatValue(PropertiesTestUtility.FLOAT_KEY) == PropertiesInjectionTest.primitiveFloatField);
+		assertTrue(PropertiesStore.getDoubleValue(PropertiesTestUtility.DOUBLE_KEY) == PropertiesInjectionTest.primitiveDoubleField);
+		assertTrue(PropertiesStore.getBooleanValue(PropertiesTestUtility.BOOLEAN_KEY) == PropertiesInjectionTest.primitiveBooleanField);
+	}
+
+	@Test
+	public void primitiveDefaults() {
+		loadTypedProperties(false);
+		assertTrue(PropertiesStore.getIntValue("missing_key", 7) == 7);
+		assertTrue(PropertiesStore.getLongValue("missing_key", 7L) == 7L);
+		assertTrue(PropertiesStore.getBooleanValue("missing_key", true));
+		assertTrue(PropertiesStore.getIntValue(PropertiesTestUtility.INTEGER_KEY, 7) == 1);
+	}
+
+	@Test
+	public void cacheConversions() {
+		loadTypedProperties(false);
+		assertTrue(PropertiesStore.getInstant(PropertiesTestUtility.DATE_KEY) == PropertiesStore.getInstant(PropertiesTestUtility.DATE_KEY));
+		assertTrue(PropertiesStore.getDate(PropertiesTestUtility.DATE_KEY) != PropertiesStore.getDate(PropertiesTestUtility.DATE_KEY));
+		assertTrue(PropertiesStore.getDate(PropertiesTestUtility.DATE_KEY).toInstant().equals(PropertiesStore.getInstant(PropertiesTestUtility.DATE_KEY)));
+	}
+
+	@Test
+	public void datePatterns() throws IOException {
+		String datePattern = PropertiesStore.getOptions().getDatePattern();
+		Locale locale = PropertiesStore.getOptions().getLocale();
+		File datesFile = File.createTempFile("dates_properties_file", null);
+		writeProperties(datesFile, "unpadded_date=1/2/2020\ntwo_digit_year_date=31/12/85\nzoned_date=31/12/2020 10:00 CET");
+		PropertiesStore.loadProperties(datesFile.getAbsolutePath());
+		try {
+			// patterns keep the SimpleDateFormat syntax and leniency
+			PropertiesStore.getOptions().setLocale(Locale.ENGLISH);
+			PropertiesStore.getOptions().setDatePattern("dd/MM/yyyy");
+			assertTrue(PropertiesStore.getLocalDate("unpadded_date").equals(LocalDate.of(2020, 2, 1)));
+			PropertiesStore.getOptions().setDatePattern("dd/MM/yy");
+			assertTrue(PropertiesStore.getLocalDate("two_digit_year_date").equals(LocalDate.of(1985, 12, 31)));
+			PropertiesStore.getOptions().setDatePattern("dd/MM/yyyy HH:mm z");
+			ZonedDateTime zonedDate = PropertiesStore.getZonedDateTime("zoned_date");
+			assertTrue(zonedDate.toLocalDateTime().equals(LocalDateTime.of(2020, 12, 31, 10, 0)));
+			assertTrue(zonedDate.getOffset().getTotalSeconds() == 3600);
+			// equal patterns and locales keep the converted values
+			PropertiesStore.getOptions().setDatePattern(new String("dd/MM/yyyy HH:mm z"));
+			PropertiesStore.getOptions().setLocale(new Locale("en"));
+			assertTrue(PropertiesStore.getZonedDateTime("zoned_date") == zonedDate);
+		} finally {
+			PropertiesStore.getOptions().setDatePattern(datePattern);
+			PropertiesStore.getOptions().setLocale(locale);
+		}
+	}
+
+	@Test
+	public void injectUnconvertible() throws IOException {
+		Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(false);
+		File unconvertibleFile = File.createTempFile("unconvertible_properties_file", null);
+		try (FileOutputStream fos = new FileOutputStream(unconvertibleFile)) {
+			fos.write((PropertiesTestUtility.INTEGER_KEY + "=not_a_number").getBytes());
+		}
+		try {
+			PropertiesStore.loadProperties(unconvertibleFile.getAbsolutePath());
+			fail();
+		} catch (RuntimeException e) {
+			checkProperties(typedPropertiesFileEntry);
+		}
+	}
+
+	@Test
+	public void injectChangedOnly() {
+		loadTypedProperties(false);
+		Integer untouchedValue = PropertiesInjectionTest.integerField + 1;
+		PropertiesInjectionTest.integerField = untouchedValue;
+		for (String tempFileLocation : PropertiesTestUtility.PROPERTIES_FILES_MAP.keySet()) {
+			PropertiesStore.loadProperties(tempFileLocation);
+		}
+		assertTrue(untouchedValue.equals(PropertiesInjectionTest.integerField));
+	}
+
+	@Test
+	public void subscribe() throws InterruptedException {
+		final List<PropertyChangeEvent> keyChanges = new CopyOnWriteArrayList<>();
+		final List<PropertyChangeEvent> patternChanges = new CopyOnWriteArrayList<>();
+		final CountDownLatch latch = new CountDownLatch(2);
+		PropertiesStore.subscribe(PropertiesTestUtility.STRING_KEY, new PropertiesChangeListener() {
+			@Override
+			public void propertiesChanged(List<PropertyChangeEvent> changes) {
+				keyChanges.addAll(changes);
+				latch.countDown();
+			}
+		});
+		PropertiesStore.subscribeByPattern("(integer|long)_key", new PropertiesChangeListener() {
+			@Override
+			public void propertiesChanged(List<PropertyChangeEvent> changes) {
+				patternChanges.addAll(changes);
+				latch.countDown();
+			}
+		});
+		final List<PropertyChangeEvent> prefixChanges = new CopyOnWriteArrayList<>();
+		PropertiesStore.subscribeByPrefix("unmatched_", new PropertiesChangeListener() {
+			@Override
+			public void propertiesChanged(List<PropertyChangeEvent> changes) {
+				prefixChanges.addAll(changes);
+			}
+		});
+
+		Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(false);
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		assertTrue(keyChanges.size() == 1);
+		assertTrue(keyChanges.get(0).getOldValue() == null);
+		assertTrue(keyChanges.get(0).getNewValue().equals(typedPropertiesFileEntry.getValue().get(PropertiesTestUtility.STRING_KEY)));
+		assertTrue(patternChanges.size() == 2);
+		assertTrue(prefixChanges.isEmpty());
+	}
+
+	@Test
+	public void query() {
+		loadTypedProperties(false);
+		String stringValue = PropertiesStore.getProperty(PropertiesTestUtility.STRING_KEY);
+
+		Map<String, String> matchingProperties = PropertiesStore.getPropertiesByPattern("(string|integer)_key");
+		assertTrue(matchingProperties.size() == 2);
+		assertTrue(matchingProperties == PropertiesStore.getPropertiesByPattern("(string|integer)_key"));
+		Properties matchingPropertiesCopy = PropertiesStore.getProperties("(string|integer)_key");
+		assertTrue(matchingPropertiesCopy.equals(matchingProperties));
+		matchingPropertiesCopy.setProperty(PropertiesTestUtility.STRING_KEY, "edited_string_value");
+		assertTrue(matchingProperties.get(PropertiesTestUtility.STRING_KEY).equals(stringValue));
+
+		SortedMap<String, String> prefixedProperties = PropertiesStore.getPropertiesByPrefix("string_");
+		assertTrue(prefixedProperties.size() == 1);
+		assertTrue(prefixedProperties.get(PropertiesTestUtility.STRING_KEY).equals(stringValue));
+
+		SortedMap<String, String> rangeProperties = PropertiesStore.getPropertiesByRange("date_key", "float_key");
+		assertTrue(rangeProperties.keySet().equals(new HashSet<>(Arrays.asList(PropertiesTestUtility.DATE_KEY, PropertiesTestUtility.DOUBLE_KEY, PropertiesTestUtility.DURATION_KEY))));
+
+		Map<String, String> propertiesView = PropertiesStore.getPropertiesView("string_");
+		assertTrue(propertiesView.get("key").equals(stringValue));
+		assertTrue(propertiesView.entrySet().iterator().next().getKey().equals("key"));
+	}
+
+	@Test
+	public void sortedQueriesAcrossReloads() throws IOException {
+		checkSortedQueriesAcrossReloads();
+	}
+
+	@Test
+	public void offHeapSortedQueriesAcrossReloads() throws IOException {
+		PropertiesStore.getOptions().setStorageMode(StorageMode.OFF_HEAP);
+		try {
+			checkSortedQueriesAcrossReloads();
+
+			// keys are sorted as strings, supplementary characters before the ones from U+E000
+			File unicodeFile = File.createTempFile("unicode_properties_file", null);
+			writeProperties(unicodeFile, "sorted_\\ue000=1\nsorted_\\ud83d\\ude00=2\nsorted_\\u00e9=3\nsorted_a=4");
+			PropertiesStore.loadProperties(unicodeFile.getAbsolutePath());
+			SortedMap<String, String> unicodeProperties = PropertiesStore.getPropertiesByPrefix("sorted_");
+			assertTrue(new ArrayList<>(unicodeProperties.keySet())
+					.equals(Arrays.asList("sorted_a", "sorted_\u00e9", "sorted_\ud83d\ude00", "sorted_\ue000")));
+			assertTrue(unicodeProperties.get("sorted_\ud83d\ude00").equals("2"));
+			assertTrue(unicodeProperties.tailMap("sorted_\ud83d").firstKey().equals("sorted_\ud83d\ude00"));
+		} finally {
+			PropertiesStore.getOptions().setStorageMode(StorageMode.HEAP);
+		}
+	}
+
+	private static void checkSortedQueriesAcrossReloads() throws IOException {
+		PropertiesStore.getOptions().setHotReload(false);
+		File sortedFile = File.createTempFile("sorted_properties_file", null);
+		TreeMap<String, String> expectedProperties = new TreeMap<>();
+		for (int i = 0; i < 1000; i++) {
+			expectedProperties.put(String.format("key_%04d", i), String.valueOf(i));
+		}
+		writeProperties(sortedFile, expectedProperties);
+		PropertiesStore.loadProperties(sortedFile.getAbsolutePath());
+		checkSortedQueries(expectedProperties);
+
+		// a few changes are carried over as an overlay, many of them trigger a compaction
+		for (int changes : new int[] { 10, 500 }) {
+			for (int i = 0; i < changes; i++) {
+				expectedProperties.remove(String.format("key_%04d", i * 2));
+				expectedProperties.put(String.format("key_%04d_added", i * 2 + 1), "added");
+				expectedProperties.put(String.format("key_%04d", i * 2 + 1), "changed");
+			}
+			writeProperties(sortedFile, expectedProperties);
+			PropertiesStore.loadProperties(sortedFile.getAbsolutePath());
+			checkSortedQueries(expectedProperties);
+		}
+	}
+
+	private static void checkSortedQueries(TreeMap<String, String> expectedProperties) {
+		SortedMap<String, String> prefixedProperties = PropertiesStore.getPropertiesByPrefix("key_");
+		assertTrue(new ArrayList<>(prefixedProperties.entrySet()).equals(new ArrayList<>(expectedProperties.entrySet())));
+		assertTrue(prefixedProperties.size() == expectedProperties.size());
+		assertTrue(prefixedProperties.firstKey().equals(expectedProperties.firstKey()));
+		assertTrue(prefixedProperties.lastKey().equals(expectedProperties.lastKey()));
+		SortedMap<String, String> rangeProperties = PropertiesStore.getPropertiesByRange("key_0100", "key_0200");
+		assertTrue(new ArrayList<>(rangeProperties.keySet()).equals(new ArrayList<>(expectedProperties.subMap("key_0100", "key_0200").keySet())));
+		assertTrue(rangeProperties.headMap("key_0150").equals(expectedProperties.subMap("key_0100", "key_0150")));
+		assertTrue(rangeProperties.get("key_0300") == null);
+	}
+
+	private static void writeProperties(File file, Map<String, String> properties) throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (Entry<String, String> property : properties.entrySet()) {
+			content.append(property.getKey()).append('=').append(property.getValue()).append('\n');
+		}
+		writeProperties(file, content.toString());
+	}
+
+	@Test
+	public void toText() {
+		loadTypedProperties(false);
+		PropertiesStore.getOptions().setObfuscatedPropertyPattern("string_.*");
+		String text = PropertiesStore.toText();
+		assertTrue(text.contains(PropertiesTestUtility.STRING_KEY + "=" + PropertiesStore.getOptions().getObfuscatedPropertyPlaceholder()));
+		assertTrue(text.contains(PropertiesTestUtility.INTEGER_KEY + "=" + PropertiesStore.getProperty(PropertiesTestUtility.INTEGER_KEY)));
+		assertTrue(!text.contains(PropertiesStore.getProperty(PropertiesTestUtility.STRING_KEY)));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void readOnlyView() {
+		Entry<String, Properties> typedPropertiesFileEntry = loadTypedProperties(false);
+		Properties properties = PropertiesStore.getProperties();
+		assertTrue(properties.equals(typedPropertiesFileEntry.getValue()));
+		assertTrue(properties.getProperty(PropertiesTestUtility.STRING_KEY).equals(PropertiesStore.getProperty(PropertiesTestUtility.STRING_KEY)));
+		assertTrue(properties.stringPropertyNames().equals(typedPropertiesFileEntry.getValue().stringPropertyNames()));
+		try {
+			properties.setProperty(PropertiesTestUtility.STRING_KEY, "edited_string_value");
+			fail();
+		} catch (UnsupportedOperationException e) {
+			assertTrue(PropertiesStore.getProperty(PropertiesTestUtility.STRING_KEY).equals(properties.getProperty(PropertiesTestUtility.STRING_KEY)));
+		}
+		properties.put(PropertiesTestUtility.STRING_KEY, "edited_string_value");
+	}
+
+	private static void writeProperties(File file, String content) throws IOException {
+		file.deleteOnExit();
+		try (FileOutputStream fos = new FileOutputStream(file)) {
+			fos.write(content.getBytes());
+		}
 	}
 
 	private Entry<String, Properties> loadTypedProperties(boolean hotReload) {
@@ -123,6 +658,39 @@ public class PropertiesStoreTest {
 
 		@Property(PropertiesTestUtility.DATE_KEY)
 		public static Date dateField;
+
+		@Property(PropertiesTestUtility.DATE_KEY)
+		public static Instant instantField;
+
+		@Property(PropertiesTestUtility.DATE_KEY)
+		public static LocalDate localDateField;
+
+		@Property(PropertiesTestUtility.DATE_KEY)
+		public static LocalDateTime localDateTimeField;
+
+		@Property(PropertiesTestUtility.DATE_KEY)
+		public static ZonedDateTime zonedDateTimeField;
+
+		@Property(PropertiesTestUtility.DURATION_KEY)
+		public static Duration durationField;
+
+		@Property(PropertiesTestUtility.BOOLEAN_KEY)
+		public static Boolean booleanField;
+
+		@Property(PropertiesTestUtility.INTEGER_KEY)
+		public static int intField;
+
+		@Property(PropertiesTestUtility.LONG_KEY)
+		public static long primitiveLongField;
+
+		@Property(PropertiesTestUtility.FLOAT_KEY)
+		public static float primitiveFloatField;
+
+		@Property(PropertiesTestUtility.DOUBLE_KEY)
+		public static double primitiveDoubleField;
+
+		@Property(PropertiesTestUtility.BOOLEAN_KEY)
+		public static boolean primitiveBooleanField;
 	}
 
 }
@@ -0,0 +1,94 @@
+package io.github.thingersoft.pm.api;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class PropertiesWatcherTest {
+
+	private static final long POLL_INTERVAL = 100;
+
+	@Test
+	public void nativeWatcher() throws IOException, InterruptedException {
+		try (PropertiesWatcher watcher = PropertiesWatcher.create(POLL_INTERVAL)) {
+			checkChangeDetected(watcher);
+			checkDirectoryEventsDetected(watcher);
+		}
+	}
+
+	@Test
+	public void pollingWatcher() throws IOException, InterruptedException {
+		try (PropertiesWatcher watcher = new PollingPropertiesWatcher(POLL_INTERVAL)) {
+			checkChangeDetected(watcher);
+			checkDirectoryEventsDetected(watcher);
+		}
+	}
+
+	private void checkChangeDetected(PropertiesWatcher watcher) throws IOException, InterruptedException {
+		File watchedFile = File.createTempFile("watched_properties_file", null);
+		File siblingFile = File.createTempFile("sibling_properties_file", null, watchedFile.getParentFile());
+		final CountDownLatch watchedLatch = new CountDownLatch(1);
+		final CountDownLatch siblingLatch = new CountDownLatch(1);
+		watcher.watch(watchedFile.toPath(), new PropertiesWatcher.Listener() {
+			@Override
+			public void onFileChange(Path file) {
+				watchedLatch.countDown();
+			}
+		});
+		watcher.watch(siblingFile.toPath(), new PropertiesWatcher.Listener() {
+			@Override
+			public void onFileChange(Path file) {
+				siblingLatch.countDown();
+			}
+		});
+
+		// let the polling watcher take its first directory snapshot
+		Thread.sleep(POLL_INTERVAL * 2);
+		try (FileOutputStream fos = new FileOutputStream(watchedFile)) {
+			fos.write("key=value".getBytes());
+		}
+		assertTrue(watchedLatch.await(POLL_INTERVAL * 20, TimeUnit.MILLISECONDS));
+		assertTrue(siblingLatch.getCount() == 1);
+	}
+
+	private void checkDirectoryEventsDetected(PropertiesWatcher watcher) throws IOException, InterruptedException {
+		File watchedDirectory = Files.createTempDirectory("watched_properties_directory").toFile();
+		watchedDirectory.deleteOnExit();
+		final CountDownLatch createLatch = new CountDownLatch(1);
+		final CountDownLatch deleteLatch = new CountDownLatch(1);
+		watcher.watchDirectory(watchedDirectory.toPath(), new PropertiesWatcher.Listener() {
+			@Override
+			public void onFileChange(Path file) {
+				// not relevant
+			}
+
+			@Override
+			public void onFileCreate(Path file) {
+				createLatch.countDown();
+			}
+
+			@Override
+			public void onFileDelete(Path file) {
+				deleteLatch.countDown();
+			}
+		});
+
+		Thread.sleep(POLL_INTERVAL * 2);
+		File createdFile = new File(watchedDirectory, "created.properties");
+		try (FileOutputStream fos = new FileOutputStream(createdFile)) {
+			fos.write("key=value".getBytes());
+		}
+		assertTrue(createLatch.await(POLL_INTERVAL * 20, TimeUnit.MILLISECONDS));
+		assertTrue(createdFile.delete());
+		assertTrue(deleteLatch.await(POLL_INTERVAL * 20, TimeUnit.MILLISECONDS));
+	}
+
+}
@@ -0,0 +1,159 @@
+package io.github.thingersoft.pm.api;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Test;
+
+import io.github.thingersoft.pm.api.data.RefreshStrategy;
+
+public class PropertySourcesTest {
+
+	@Test
+	public void jarSources() throws IOException {
+		File jarFile = File.createTempFile("properties_jar", ".jar");
+		jarFile.deleteOnExit();
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(jarFile))) {
+			jos.putNextEntry(new ZipEntry("config/app.properties"));
+			jos.write("jar_key=jar\nshared_key=classpath".getBytes(StandardCharsets.ISO_8859_1));
+			jos.closeEntry();
+		}
+		try (PropertiesManager manager = new PropertiesManager();
+				URLClassLoader classLoader = new URLClassLoader(new URL[] { jarFile.toURI().toURL() }, null)) {
+			manager.addSource(PropertySources.classpath("config/app.properties", classLoader, StandardCharsets.ISO_8859_1));
+			assertTrue(manager.getProperty("jar_key").equals("jar"));
+
+			URL jarEntryUrl = new URL("jar:" + jarFile.toURI() + "!/config/app.properties");
+			PropertySource urlSource = PropertySources.url(jarEntryUrl, StandardCharsets.ISO_8859_1);
+			manager.addSource(urlSource);
+			assertTrue(manager.getProperty("shared_key").equals("classpath"));
+			assertTrue(manager.removeSource(urlSource.getName()));
+			assertTrue(manager.getProperty("jar_key").equals("jar"));
+			assertTrue(!manager.removeSource(urlSource.getName()));
+		}
+	}
+
+	@Test
+	public void systemSources() {
+		System.setProperty("system_source_key", "system");
+		try (PropertiesManager manager = new PropertiesManager()) {
+			manager.addSource(PropertySources.environment());
+			manager.addSource(PropertySources.systemProperties());
+			assertTrue(manager.getProperty("system_source_key").equals("system"));
+			for (Map.Entry<String, String> variable : System.getenv().entrySet()) {
+				if (!System.getProperties().containsKey(variable.getKey())) {
+					assertTrue(manager.getProperty(variable.getKey()).equals(variable.getValue()));
+				}
+			}
+		} finally {
+			System.clearProperty("system_source_key");
+		}
+	}
+
+	@Test
+	public void jdbcSourceRefresh() throws SQLException, InterruptedException {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:properties;DB_CLOSE_DELAY=-1");
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+				PropertiesManager manager = new PropertiesManager()) {
+			statement.execute("CREATE TABLE app_properties (prop_key VARCHAR(64) PRIMARY KEY, prop_value VARCHAR(64))");
+			statement.execute("INSERT INTO app_properties VALUES ('db_key', '1'), ('null_key', NULL)");
+			manager.addSource(PropertySources.jdbc(dataSource, "SELECT prop_key, prop_value FROM app_properties"),
+					RefreshStrategy.fixedDelay(50, TimeUnit.MILLISECONDS));
+			assertTrue(manager.getIntValue("db_key") == 1);
+			assertTrue(manager.getProperty("null_key") == null);
+
+			statement.execute("UPDATE app_properties SET prop_value = '2' WHERE prop_key = 'db_key'");
+			assertTrue(awaitProperty(manager, "db_key", "2"));
+			statement.execute("DELETE FROM app_properties WHERE prop_key = 'db_key'");
+			assertTrue(awaitProperty(manager, "db_key", null));
+		}
+	}
+
+	@Test
+	public void slowSourceIsolation() throws InterruptedException {
+		final CountDownLatch slowFetchLatch = new CountDownLatch(1);
+		final CountDownLatch releaseLatch = new CountDownLatch(1);
+		final int[] fastFetches = new int[1];
+		try (PropertiesManager manager = new PropertiesManager()) {
+			manager.addSource(new PropertySource() {
+				private boolean fetched;
+
+				@Override
+				public String getName() {
+					return "slow";
+				}
+
+				@Override
+				public Map<String, String> fetch() throws IOException {
+					if (fetched) {
+						slowFetchLatch.countDown();
+						try {
+							releaseLatch.await();
+						} catch (InterruptedException e) {
+							throw new IOException(e);
+						}
+						throw new IOException("slow source unavailable");
+					}
+					fetched = true;
+					return Collections.singletonMap("slow_key", "slow");
+				}
+			}, RefreshStrategy.fixedDelay(10, TimeUnit.MILLISECONDS));
+			manager.addSource(new PropertySource() {
+				@Override
+				public String getName() {
+					return "fast";
+				}
+
+				@Override
+				public Map<String, String> fetch() {
+					synchronized (fastFetches) {
+						return Collections.singletonMap("fast_key", String.valueOf(++fastFetches[0]));
+					}
+				}
+			}, RefreshStrategy.fixedDelay(10, TimeUnit.MILLISECONDS));
+
+			// the fast source keeps being refreshed while the slow one is stuck fetching
+			assertTrue(slowFetchLatch.await(15, TimeUnit.SECONDS));
+			int stuckFastFetches = manager.getIntValue("fast_key");
+			for (int i = 0; i < 150 && manager.getIntValue("fast_key") < stuckFastFetches + 3; i++) {
+				Thread.sleep(100);
+			}
+			assertTrue(manager.getIntValue("fast_key") >= stuckFastFetches + 3);
+			assertTrue(manager.getProperty("slow_key").equals("slow"));
+
+			// a failed refresh keeps the last fetched values
+			releaseLatch.countDown();
+			Thread.sleep(100);
+			assertTrue(manager.getProperty("slow_key").equals("slow"));
+		}
+	}
+
+	private static boolean awaitProperty(PropertiesManager manager, String key, String value) throws InterruptedException {
+		for (int i = 0; i < 150; i++) {
+			String currentValue = manager.getProperty(key);
+			if (value == null ? currentValue == null : value.equals(currentValue)) {
+				return true;
+			}
+			Thread.sleep(100);
+		}
+		return false;
+	}
+
+}
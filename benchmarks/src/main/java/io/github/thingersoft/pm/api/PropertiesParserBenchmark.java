@@ -0,0 +1,76 @@
+package io.github.thingersoft.pm.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.thingersoft.pm.test.PropertiesTestUtility;
+
+/**
+ * Parsing of a single file holding {@code keyCount} synthetic properties, comparing {@link Properties#load(java.io.InputStream)} with
+ * {@link PropertiesParser} over heap and memory mapped buffers.<br>
+ * Declared within the api package to reach the package private parser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertiesParserBenchmark {
+
+	private static final String KEY_PREFIX = "parser.key.";
+
+	@Param({ "10000", "1000000" })
+	private int keyCount;
+
+	private Path file;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		File directory = PropertiesTestUtility.writeGeneratedPropertiesFiles(KEY_PREFIX, keyCount, 1, 0);
+		file = directory.listFiles()[0].toPath();
+	}
+
+	@Benchmark
+	public Properties propertiesLoad() throws IOException {
+		Properties properties = new Properties();
+		properties.load(new ByteArrayInputStream(Files.readAllBytes(file)));
+		return properties;
+	}
+
+	@Benchmark
+	public Map<String, String> parseHeap() throws IOException {
+		return PropertiesParser.parse(ByteBuffer.wrap(Files.readAllBytes(file)), StandardCharsets.ISO_8859_1);
+	}
+
+	@Benchmark
+	public Map<String, String> parseMapped() throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return PropertiesParser.parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), StandardCharsets.ISO_8859_1);
+		}
+	}
+
+}
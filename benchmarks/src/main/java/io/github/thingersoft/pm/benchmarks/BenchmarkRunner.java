@@ -0,0 +1,36 @@
+package io.github.thingersoft.pm.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the read benchmarks once for each reader thread count.<br>
+ * JMH doesn't allow parameterizing thread counts, so this runner provides the sweep:<br><br>
+ * java -cp benchmarks.jar io.github.thingersoft.pm.benchmarks.BenchmarkRunner [threads...]<br><br>
+ * Thread counts default to 1, 4 and 16. Other benchmarks are single threaded and can be launched through the JMH main class.
+ */
+public final class BenchmarkRunner {
+
+	private static final String[] DEFAULT_THREAD_COUNTS = { "1", "4", "16" };
+
+	private BenchmarkRunner() {
+
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String[] threadCounts = args.length > 0 ? args : DEFAULT_THREAD_COUNTS;
+		for (String threadCount : threadCounts) {
+			int threads = Integer.parseInt(threadCount);
+			ChainedOptionsBuilder options = new OptionsBuilder()
+					.include(ReadBenchmark.class.getSimpleName())
+					.threads(threads)
+					.result("read-benchmark-" + threads + "-threads.json")
+					.resultFormat(ResultFormatType.JSON);
+			new Runner(options.build()).run();
+		}
+	}
+
+}
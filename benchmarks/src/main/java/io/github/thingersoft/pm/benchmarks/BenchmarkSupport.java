@@ -0,0 +1,41 @@
+package io.github.thingersoft.pm.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.thingersoft.pm.api.PropertiesStore;
+import io.github.thingersoft.pm.api.data.PropertiesStoreOptions;
+import io.github.thingersoft.pm.test.PropertiesTestUtility;
+
+/**
+ * Setup shared among benchmarks.
+ */
+final class BenchmarkSupport {
+
+	private BenchmarkSupport() {
+
+	}
+
+	/**
+	 * Resets the store to a non watching configuration and makes sure the typed test file exists.
+	 */
+	static void resetStore() throws IOException {
+		PropertiesStore.reset();
+		PropertiesStoreOptions options = new PropertiesStoreOptions();
+		options.setHotReload(false);
+		PropertiesStore.setOptions(options);
+		if (PropertiesTestUtility.getTypedPropertiesTestEntry() == null) {
+			PropertiesTestUtility.initProperties();
+		}
+	}
+
+	static List<String> generatedKeys(String keyPrefix, int keyCount) {
+		List<String> keys = new ArrayList<>(keyCount);
+		for (int i = 0; i < keyCount; i++) {
+			keys.add(PropertiesTestUtility.getGeneratedKey(keyPrefix, i));
+		}
+		return keys;
+	}
+
+}
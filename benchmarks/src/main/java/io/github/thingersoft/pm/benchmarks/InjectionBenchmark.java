@@ -0,0 +1,148 @@
+package io.github.thingersoft.pm.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.thingersoft.pm.api.PropertiesStore;
+import io.github.thingersoft.pm.api.annotations.Properties;
+import io.github.thingersoft.pm.api.annotations.Property;
+import io.github.thingersoft.pm.api.data.SupportedTypes;
+import io.github.thingersoft.pm.test.PropertiesTestUtility;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.annotation.Annotation;
+import javassist.bytecode.annotation.BooleanMemberValue;
+import javassist.bytecode.annotation.StringMemberValue;
+
+/**
+ * Update of {@code fieldCount} {@link Property} annotated fields, each one mapped to a changed property.<br>
+ * With {@code injection} set to {@code injector} fields are injected by the store through the injectors compiled at initialization, while
+ * {@code legacy} replays the former per update injection path: field type and annotation lookup, conversion through the typed getters and
+ * {@link Field#set(Object, Object)}.
+ * Both variants pay for loading the changed properties, so the difference between them is the injection cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InjectionBenchmark {
+
+	private static final String KEY_PREFIX = "injection.key.";
+
+	@Param({ "1000", "5000" })
+	private int fieldCount;
+
+	@Param({ "injector", "legacy" })
+	private String injection;
+
+	private String[] datasets;
+	private Field[] fields;
+	private int invocations;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkSupport.resetStore();
+		datasets = new String[2];
+		for (int i = 0; i < datasets.length; i++) {
+			datasets[i] = PropertiesTestUtility.writeGeneratedPropertiesFiles(KEY_PREFIX, fieldCount, 1, i).getAbsolutePath();
+		}
+
+		Class<?> mappedClass = generateMappedClass(fieldCount);
+		fields = mappedClass.getDeclaredFields();
+		if (injection.equals("injector")) {
+			PropertiesStore.initByAnnotatedClass(mappedClass);
+		}
+		PropertiesStore.loadProperties(datasets[0]);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		PropertiesStore.reset();
+	}
+
+	@Benchmark
+	public void updateInjectedFields() throws IllegalAccessException {
+		PropertiesStore.loadProperties(datasets[++invocations & 1]);
+		if (injection.equals("legacy")) {
+			for (Field field : fields) {
+				injectLegacy(field);
+			}
+		}
+	}
+
+	private static void injectLegacy(Field field) throws IllegalAccessException {
+		SupportedTypes supportedType = SupportedTypes.getSupportedType(field.getType());
+		String propertyKey = field.getAnnotation(Property.class).value();
+		Object propertyValue = null;
+		if (PropertiesStore.getProperty(propertyKey) != null) {
+			switch (supportedType) {
+			case INTEGER:
+				propertyValue = PropertiesStore.getInteger(propertyKey);
+				break;
+			default:
+				propertyValue = PropertiesStore.getProperty(propertyKey);
+			}
+		}
+		field.set(null, propertyValue);
+	}
+
+	/**
+	 * Generates a class annotated with {@link Properties}, declaring an {@link Integer} field for each synthetic property.
+	 */
+	private static Class<?> generateMappedClass(int fieldCount) throws Exception {
+		ClassPool classPool = ClassPool.getDefault();
+		CtClass ctClass = classPool.makeClass(InjectionBenchmark.class.getName() + "$Mapped" + fieldCount);
+		ConstPool constPool = ctClass.getClassFile().getConstPool();
+
+		AnnotationsAttribute classAnnotations = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+		Annotation propertiesAnnotation = new Annotation(Properties.class.getName(), constPool);
+		propertiesAnnotation.addMemberValue("hotReload", new BooleanMemberValue(false, constPool));
+		classAnnotations.addAnnotation(propertiesAnnotation);
+		ctClass.getClassFile().addAttribute(classAnnotations);
+
+		CtClass integerClass = classPool.get(Integer.class.getName());
+		for (int i = 0; i < fieldCount; i++) {
+			CtField ctField = new CtField(integerClass, "field" + i, ctClass);
+			ctField.setModifiers(Modifier.PUBLIC | Modifier.STATIC);
+			AnnotationsAttribute fieldAnnotations = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+			Annotation propertyAnnotation = new Annotation(Property.class.getName(), constPool);
+			propertyAnnotation.addMemberValue("value", new StringMemberValue(PropertiesTestUtility.getGeneratedKey(KEY_PREFIX, i), constPool));
+			fieldAnnotations.addAnnotation(propertyAnnotation);
+			ctField.getFieldInfo().addAttribute(fieldAnnotations);
+			ctClass.addField(ctField);
+		}
+
+		final byte[] bytecode = ctClass.toBytecode();
+		ctClass.detach();
+		final String className = ctClass.getName();
+		return new ClassLoader(InjectionBenchmark.class.getClassLoader()) {
+
+			private Class<?> define() {
+				return defineClass(className, bytecode, 0, bytecode.length);
+			}
+
+		}.define();
+	}
+
+}
@@ -0,0 +1,105 @@
+package io.github.thingersoft.pm.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.thingersoft.pm.api.PropertiesStore;
+import io.github.thingersoft.pm.test.PropertiesTestUtility;
+
+/**
+ * Multiple properties reads over a store holding {@code keyCount} synthetic properties.<br>
+ * Queries select roughly a tenth of the keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+	private static final String KEY_PREFIX = "query.key.";
+	private static final String KEY_PATTERN = "query\\.key\\.1\\d*";
+
+	@Param({ "1000", "100000", "1000000" })
+	private int keyCount;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		BenchmarkSupport.resetStore();
+		File dataset = PropertiesTestUtility.writeGeneratedPropertiesFiles(KEY_PREFIX, keyCount, 1, 0);
+		PropertiesStore.loadProperties(dataset.getAbsolutePath());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		PropertiesStore.reset();
+	}
+
+	@Benchmark
+	public Map<String, String> getPropertiesByPattern() {
+		return PropertiesStore.getPropertiesByPattern(KEY_PATTERN);
+	}
+
+	@Benchmark
+	public SortedMap<String, String> getPropertiesByPrefix() {
+		return PropertiesStore.getPropertiesByPrefix(KEY_PREFIX + "1");
+	}
+
+	@Benchmark
+	public String toText() {
+		return PropertiesStore.toText();
+	}
+
+	@Benchmark
+	public void toTextStreamed(final Blackhole blackhole) throws IOException {
+		PropertiesStore.toText(new Writer() {
+
+			@Override
+			public void write(char[] cbuf, int off, int len) {
+				blackhole.consume(len);
+			}
+
+			@Override
+			public Writer append(CharSequence csq) {
+				blackhole.consume(csq);
+				return this;
+			}
+
+			@Override
+			public Writer append(char c) {
+				blackhole.consume(c);
+				return this;
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+
+		});
+	}
+
+}
@@ -0,0 +1,134 @@
+package io.github.thingersoft.pm.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.thingersoft.pm.api.PropertiesStore;
+import io.github.thingersoft.pm.api.data.StorageMode;
+import io.github.thingersoft.pm.test.PropertiesTestUtility;
+
+/**
+ * Single property reads, both raw and converted, over a store holding {@code keyCount} synthetic properties kept according to
+ * {@code storageMode}, with or without {@code accessTracking}.<br>
+ * Keys are read in a shuffled order, so that large datasets don't get an unrealistically warm cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadBenchmark {
+
+	private static final String KEY_PREFIX = "read.key.";
+
+	@Param({ "1000", "100000", "1000000" })
+	private int keyCount;
+
+	@Param({ "HEAP", "OFF_HEAP" })
+	private StorageMode storageMode;
+
+	@Param({ "false", "true" })
+	private boolean accessTracking;
+
+	private String[] keys;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		BenchmarkSupport.resetStore();
+		PropertiesStore.getOptions().setStorageMode(storageMode);
+		PropertiesStore.getOptions().setAccessTracking(accessTracking);
+		File dataset = PropertiesTestUtility.writeGeneratedPropertiesFiles(KEY_PREFIX, keyCount, 1, 0);
+		PropertiesStore.loadProperties(dataset.getAbsolutePath());
+		PropertiesStore.loadProperties(PropertiesTestUtility.getTypedPropertiesTestEntry().getKey());
+
+		List<String> shuffledKeys = BenchmarkSupport.generatedKeys(KEY_PREFIX, keyCount);
+		Collections.shuffle(shuffledKeys, new Random(keyCount));
+		keys = shuffledKeys.toArray(new String[0]);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		PropertiesStore.reset();
+	}
+
+	/**
+	 * Per thread position within the shuffled keys.
+	 */
+	@State(Scope.Thread)
+	public static class KeyCursor {
+
+		private int index;
+
+		@Setup(Level.Trial)
+		public void setup(ReadBenchmark benchmark) {
+			// spread threads over the keys
+			index = ThreadLocalRandom.current().nextInt(benchmark.keys.length);
+		}
+
+		String next(String[] keys) {
+			if (++index >= keys.length) {
+				index = 0;
+			}
+			return keys[index];
+		}
+
+	}
+
+	@Benchmark
+	public String getProperty(KeyCursor cursor) {
+		return PropertiesStore.getProperty(cursor.next(keys));
+	}
+
+	@Benchmark
+	public Integer getInteger(KeyCursor cursor) {
+		return PropertiesStore.getInteger(cursor.next(keys));
+	}
+
+	@Benchmark
+	public Long getLong(KeyCursor cursor) {
+		return PropertiesStore.getLong(cursor.next(keys));
+	}
+
+	@Benchmark
+	public int getIntValue(KeyCursor cursor) {
+		return PropertiesStore.getIntValue(cursor.next(keys));
+	}
+
+	@Benchmark
+	public Date getDate() {
+		return PropertiesStore.getDate(PropertiesTestUtility.DATE_KEY);
+	}
+
+	@Benchmark
+	public Instant getInstant() {
+		return PropertiesStore.getInstant(PropertiesTestUtility.DATE_KEY);
+	}
+
+	@Benchmark
+	public Boolean getBoolean() {
+		return PropertiesStore.getBoolean(PropertiesTestUtility.BOOLEAN_KEY);
+	}
+
+}
@@ -0,0 +1,100 @@
+package io.github.thingersoft.pm.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.thingersoft.pm.api.PropertiesStore;
+import io.github.thingersoft.pm.test.PropertiesTestUtility;
+
+/**
+ * Loading of {@code keyCount} synthetic properties spread over {@code fileCount} files.<br>
+ * {@link #reloadChanged()} alternates between two datasets sharing the same keys with different values, swapped behind the same folder
+ * location through a symbolic link, so that every key changes on each invocation, while {@link #reloadUnchanged()} loads the same dataset
+ * over and over. {@link #reloadOneKeyChanged()} alternates the value of a single key, held by a small file overriding the dataset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReloadBenchmark {
+
+	private static final String KEY_PREFIX = "reload.key.";
+
+	@Param({ "1000", "100000", "1000000" })
+	private int keyCount;
+
+	@Param({ "1", "16", "128" })
+	private int fileCount;
+
+	private Path[] datasets;
+	private Path datasetLink;
+	private File overridingFile;
+	private int invocations;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		BenchmarkSupport.resetStore();
+		datasets = new Path[2];
+		for (int i = 0; i < datasets.length; i++) {
+			datasets[i] = PropertiesTestUtility.writeGeneratedPropertiesFiles(KEY_PREFIX, keyCount, fileCount, i).toPath();
+		}
+		datasetLink = Files.createTempDirectory("reload_benchmark").resolve("dataset");
+		Files.createSymbolicLink(datasetLink, datasets[0]);
+		overridingFile = File.createTempFile("overriding_properties_file", null);
+		overridingFile.deleteOnExit();
+		writeOverridingFile(0);
+		PropertiesStore.loadProperties(datasetLink.toString(), overridingFile.getAbsolutePath());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		PropertiesStore.reset();
+		Files.deleteIfExists(datasetLink);
+	}
+
+	@Benchmark
+	public void reloadChanged() throws IOException {
+		Files.delete(datasetLink);
+		Files.createSymbolicLink(datasetLink, datasets[++invocations & 1]);
+		PropertiesStore.loadProperties(datasetLink.toString());
+	}
+
+	@Benchmark
+	public void reloadUnchanged() {
+		PropertiesStore.loadProperties(datasetLink.toString());
+	}
+
+	@Benchmark
+	public void reloadOneKeyChanged() throws IOException {
+		writeOverridingFile(++invocations & 1);
+		PropertiesStore.loadProperties(overridingFile.getAbsolutePath());
+	}
+
+	private void writeOverridingFile(int value) throws IOException {
+		try (FileOutputStream fos = new FileOutputStream(overridingFile)) {
+			fos.write((PropertiesTestUtility.getGeneratedKey(KEY_PREFIX, 0) + "=" + value).getBytes(StandardCharsets.ISO_8859_1));
+		}
+	}
+
+}
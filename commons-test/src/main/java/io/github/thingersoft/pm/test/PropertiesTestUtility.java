@@ -3,9 +3,12 @@ package io.github.thingersoft.pm.test;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
@@ -17,8 +20,11 @@ public final class PropertiesTestUtility {
 	}
 
 	private static final String STRING_PROPERTIES_LABEL = "string_properties_file";
+	private static final String GENERATED_PROPERTIES_LABEL = "generated_properties_";
 	public static final String TYPED_PROPERTIES_LABEL = "typed_properties_file";
 	public static final String DATE_KEY = "date_key";
+	public static final String DURATION_KEY = "duration_key";
+	public static final String BOOLEAN_KEY = "boolean_key";
 	public static final String DOUBLE_KEY = "double_key";
 	public static final String FLOAT_KEY = "float_key";
 	public static final String BIGDECIMAL_KEY = "bigdecimal_key";
@@ -36,6 +42,8 @@ public final class PropertiesTestUtility {
 		typedProperties.put(FLOAT_KEY, "4.0");
 		typedProperties.put(DOUBLE_KEY, "5.0");
 		typedProperties.put(DATE_KEY, new SimpleDateFormat().format(new Date()));
+		typedProperties.put(DURATION_KEY, "PT30S");
+		typedProperties.put(BOOLEAN_KEY, "true");
 
 		File temporaryTypedFile = File.createTempFile(TYPED_PROPERTIES_LABEL, null);
 		PROPERTIES_FILES_MAP.put(temporaryTypedFile.getAbsolutePath(), typedProperties);
@@ -52,6 +60,81 @@ public final class PropertiesTestUtility {
 		}
 	}
 
+	/**
+	 * Generates a synthetic set of properties, whose keys are the provided prefix followed by a progressive number.
+	 * 
+	 * @param keyPrefix
+	 * prefix of generated keys
+	 * @param keyCount
+	 * number of properties to generate
+	 * @param valueSeed
+	 * seed mixed into values, so that different seeds generate different values for the same keys
+	 * 
+	 * @return
+	 * the generated properties
+	 */
+	public static Properties generateProperties(String keyPrefix, int keyCount, int valueSeed) {
+		Properties properties = new Properties();
+		for (int i = 0; i < keyCount; i++) {
+			properties.put(getGeneratedKey(keyPrefix, i), Integer.toString(i ^ valueSeed));
+		}
+		return properties;
+	}
+
+	/**
+	 * @param keyPrefix
+	 * prefix of generated keys
+	 * @param index
+	 * progressive number of the key
+	 * 
+	 * @return
+	 * the key generated by {@link #generateProperties(String, int, int)} at the provided index
+	 */
+	public static String getGeneratedKey(String keyPrefix, int index) {
+		return keyPrefix + index;
+	}
+
+	/**
+	 * Writes a synthetic set of properties spread over multiple files into a new temporary directory.<br>
+	 * Keys are distributed evenly among files, so that each key is defined by a single file.
+	 * 
+	 * @param keyPrefix
+	 * prefix of generated keys
+	 * @param keyCount
+	 * total number of properties to generate
+	 * @param fileCount
+	 * number of files to generate
+	 * @param valueSeed
+	 * seed mixed into values
+	 * 
+	 * @return
+	 * the directory containing the generated files
+	 * 
+	 * @throws IOException
+	 * if files can't be written
+	 */
+	public static File writeGeneratedPropertiesFiles(String keyPrefix, int keyCount, int fileCount, int valueSeed) throws IOException {
+		File directory = Files.createTempDirectory(GENERATED_PROPERTIES_LABEL).toFile();
+		directory.deleteOnExit();
+		Properties properties = generateProperties(keyPrefix, keyCount, valueSeed);
+		List<Properties> filesProperties = new ArrayList<>();
+		for (int i = 0; i < fileCount; i++) {
+			filesProperties.add(new Properties());
+		}
+		for (int i = 0; i < keyCount; i++) {
+			String key = getGeneratedKey(keyPrefix, i);
+			filesProperties.get(i % fileCount).put(key, properties.get(key));
+		}
+		for (int i = 0; i < fileCount; i++) {
+			File file = new File(directory, GENERATED_PROPERTIES_LABEL + i + ".properties");
+			file.deleteOnExit();
+			try (FileOutputStream fos = new FileOutputStream(file)) {
+				filesProperties.get(i).store(fos, null);
+			}
+		}
+		return directory;
+	}
+
 	public static Entry<String, Properties> getTypedPropertiesTestEntry() {
 		Entry<String, Properties> typedPropertiesFileEntry = null;
 		for (Entry<String, Properties> propertiesFileEntry : PROPERTIES_FILES_MAP.entrySet()) {
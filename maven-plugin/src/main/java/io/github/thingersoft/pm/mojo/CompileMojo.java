@@ -0,0 +1,43 @@
+package io.github.thingersoft.pm.mojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import io.github.thingersoft.pm.api.CompiledProperties;
+
+@Mojo(name = CompileMojo.GOAL, defaultPhase = LifecyclePhase.PROCESS_RESOURCES)
+public class CompileMojo extends AbstractMojo {
+
+	public static final String GOAL = "compile-properties";
+
+	@Parameter(required = true)
+	private List<String> propertiesLocations;
+	@Parameter(defaultValue = "ISO-8859-1")
+	private String charset;
+	@Parameter(defaultValue = "${project.build.directory}/properties-manager/properties.bin")
+	private File compiledPropertiesFile;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		compileProperties(propertiesLocations, Charset.forName(charset), compiledPropertiesFile);
+	}
+
+	public void compileProperties(List<String> propertiesLocations, Charset charset, File compiledPropertiesFile) throws MojoExecutionException {
+		try {
+			CompiledProperties.compile(propertiesLocations, charset, compiledPropertiesFile.toPath());
+			getLog().info("Properties compiled to " + compiledPropertiesFile);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new MojoExecutionException("Can't compile properties files " + propertiesLocations, e);
+		}
+	}
+
+}
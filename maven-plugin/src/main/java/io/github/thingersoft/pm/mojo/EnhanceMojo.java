@@ -4,6 +4,10 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,6 +23,7 @@ import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ClassInfo;
 import io.github.classgraph.ClassInfoList;
 import io.github.classgraph.ScanResult;
+import io.github.thingersoft.pm.api.PropertiesStore;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.CtConstructor;
@@ -55,13 +60,26 @@ public class EnhanceMojo extends AbstractMojo {
 
 			// scan classpath for classes annotated with @Properties and store their fully qualified names into mappedClassesNames list
 			List<String> mappedClassesNames = new ArrayList<>();
+			List<String> projectMappedClassesNames = new ArrayList<>();
 			try (ScanResult scanResult = new ClassGraph().enableAllInfo().scan()) {
 				ClassInfoList classInfoList = scanResult.getClassesWithAnnotation(io.github.thingersoft.pm.api.annotations.Properties.class.getName());
 				for (ClassInfo mappedClassInfo : classInfoList) {
 					mappedClassesNames.add(mappedClassInfo.getName());
+					if (new File(targetClassesDirectory).equals(mappedClassInfo.getClasspathElementFile())) {
+						projectMappedClassesNames.add(mappedClassInfo.getName());
+					}
 				}
 			}
 
+			// write the index of project classes annotated with @Properties, so that PropertiesStore doesn't need to scan the classpath at runtime
+			Path indexPath = Paths.get(targetClassesDirectory, PropertiesStore.ANNOTATED_CLASSES_INDEX);
+			if (projectMappedClassesNames.isEmpty()) {
+				Files.deleteIfExists(indexPath);
+			} else {
+				Files.createDirectories(indexPath.getParent());
+				Files.write(indexPath, projectMappedClassesNames, StandardCharsets.UTF_8);
+			}
+
 			// enhance classes annotated with @Properties by adding a static block that calls PropertiesStore initialization method
 			for (String mappedClassName : mappedClassesNames) {
 				ClassPool classPool = new ClassPool(ClassPool.getDefault());
@@ -4,14 +4,18 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -24,6 +28,7 @@ import org.jtwig.JtwigTemplate;
 import org.jtwig.environment.EnvironmentConfiguration;
 import org.jtwig.environment.EnvironmentConfigurationBuilder;
 
+import io.github.thingersoft.pm.api.PropertyFieldsWriter;
 import io.github.thingersoft.pm.api.data.PropertiesStoreOptions;
 import io.github.thingersoft.pm.api.data.SupportedTypes;
 import io.github.thingersoft.pm.mojo.jtwig.JoinAndWrapJtwigFunction;
@@ -33,6 +38,7 @@ public class GenerateMojo extends AbstractMojo {
 
 	public static final String GOAL = "generate";
 	public static final String GENERATED_CLASS_NAME = "ApplicationProperties";
+	public static final String GENERATED_WRITER_CLASS_NAME = GENERATED_CLASS_NAME + "FieldsWriter";
 
 	@Parameter(property = "project", defaultValue = "${project}")
 	private MavenProject project;
@@ -47,17 +53,19 @@ public class GenerateMojo extends AbstractMojo {
 	private String basePackage;
 	@Parameter(defaultValue = "${project.build.directory}/generated-sources/properties-manager")
 	private File generatedSourcesDirectory;
+	@Parameter(defaultValue = "${project.build.directory}/generated-resources/properties-manager")
+	private File generatedResourcesDirectory;
 
 	@Parameter
 	private List<FieldMapping> fieldMappings;
 
 	@Override
 	public void execute() throws MojoExecutionException, MojoFailureException {
-		generateSources(templateFiles, generatedSourcesDirectory, basePackage, options, propertiesLocations, fieldMappings);
+		generateSources(templateFiles, generatedSourcesDirectory, generatedResourcesDirectory, basePackage, options, propertiesLocations, fieldMappings);
 	}
 
-	public void generateSources(List<File> templateFiles, File generatedSourcesDirectory, String basePackage, PropertiesStoreOptions options,
-			List<String> propertiesLocations, List<FieldMapping> fieldMappings) throws MojoExecutionException {
+	public void generateSources(List<File> templateFiles, File generatedSourcesDirectory, File generatedResourcesDirectory, String basePackage,
+			PropertiesStoreOptions options, List<String> propertiesLocations, List<FieldMapping> fieldMappings) throws MojoExecutionException {
 
 		// read properties files and merge them into a single map
 		Properties templateProperties = new Properties();
@@ -95,16 +103,17 @@ public class GenerateMojo extends AbstractMojo {
 			}
 		}
 
-		// generate source file
+		// generate source files: the mapping class and the writer setting its fields without reflection
 		final EnvironmentConfiguration jTwigEnv = EnvironmentConfigurationBuilder.configuration().functions().add(new JoinAndWrapJtwigFunction()).and().build();
-		JtwigTemplate template = JtwigTemplate.classpathTemplate("/ApplicationProperties.twig", jTwigEnv);
 		JtwigModel model = JtwigModel.newModel().with("basePackage", basePackage).with("fieldMappings", computedFieldMappings)
 				.with("propertiesLocations", propertiesLocationsStrings).with("options", options != null ? options : new PropertiesStoreOptions());
 		try {
 			Path outputDirectoryPath = Files.createDirectories(Paths.get(generatedSourcesDirectory.getAbsolutePath(), basePackage.replaceAll("\\.", "/")));
-			Path outputFilePath = outputDirectoryPath.resolve(GENERATED_CLASS_NAME + ".java");
-			try (OutputStream os = Files.newOutputStream(outputFilePath)) {
-				template.render(model, os);
+			for (String generatedClassName : Arrays.asList(GENERATED_CLASS_NAME, GENERATED_WRITER_CLASS_NAME)) {
+				JtwigTemplate template = JtwigTemplate.classpathTemplate("/" + generatedClassName + ".twig", jTwigEnv);
+				try (OutputStream os = Files.newOutputStream(outputDirectoryPath.resolve(generatedClassName + ".java"))) {
+					template.render(model, os);
+				}
 			}
 			if (project != null) {
 				project.addCompileSourceRoot(generatedSourcesDirectory.getAbsolutePath());
@@ -112,6 +121,20 @@ public class GenerateMojo extends AbstractMojo {
 		} catch (IOException e) {
 			throw new MojoExecutionException("Can't write to output folder", e);
 		}
+
+		// register the writer, so that PropertiesStore finds it through ServiceLoader
+		try {
+			Path servicesDirectoryPath = Files.createDirectories(Paths.get(generatedResourcesDirectory.getAbsolutePath(), "META-INF", "services"));
+			Files.write(servicesDirectoryPath.resolve(PropertyFieldsWriter.class.getName()),
+					Collections.singletonList(basePackage + "." + GENERATED_WRITER_CLASS_NAME), StandardCharsets.UTF_8);
+			if (project != null) {
+				Resource resource = new Resource();
+				resource.setDirectory(generatedResourcesDirectory.getAbsolutePath());
+				project.addResource(resource);
+			}
+		} catch (IOException e) {
+			throw new MojoExecutionException("Can't write to resources output folder", e);
+		}
 	}
 
 	private String toUncapitalizedCamelCase(String inputString) {
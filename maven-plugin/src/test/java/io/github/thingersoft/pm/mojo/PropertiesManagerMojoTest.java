@@ -4,8 +4,10 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -14,13 +16,16 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.ServiceLoader;
 
 import javax.tools.JavaCompiler;
 import javax.tools.ToolProvider;
 
 import org.junit.Test;
 
+import io.github.thingersoft.pm.api.PropertiesManager;
 import io.github.thingersoft.pm.api.PropertiesStore;
+import io.github.thingersoft.pm.api.PropertyFieldsWriter;
 import io.github.thingersoft.pm.api.data.PropertiesStoreOptions;
 import io.github.thingersoft.pm.api.data.SupportedTypes;
 
@@ -51,15 +56,22 @@ public class PropertiesManagerMojoTest {
 		customDateFieldMapping.setFieldName(DATE_FIELD_NAME);
 		customDateFieldMapping.setFieldtype(SupportedTypes.DATE);
 		fieldMappings.add(customDateFieldMapping);
-		mojo.generateSources(Arrays.asList(testPropertiesFile, testPropertiesFile), new File(tempDir.toString()), TEST_PACKAGE, options,
+		mojo.generateSources(Arrays.asList(testPropertiesFile, testPropertiesFile), new File(tempDir.toString()), new File(tempDir.toString()), TEST_PACKAGE, options,
 				Arrays.asList(testPropertiesFile.toString(), testPropertiesFile.toString()), fieldMappings);
 
 		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 		String generatedSourceBaseFilePath = tempDir.resolve(TEST_PACKAGE + "/" + GenerateMojo.GENERATED_CLASS_NAME).toString();
-		assertTrue(compiler.run(null, null, null, generatedSourceBaseFilePath + ".java") == 0);
+		String generatedWriterBaseFilePath = tempDir.resolve(TEST_PACKAGE + "/" + GenerateMojo.GENERATED_WRITER_CLASS_NAME).toString();
+		assertTrue(compiler.run(null, null, null, generatedSourceBaseFilePath + ".java", generatedWriterBaseFilePath + ".java") == 0);
 
 		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { tempDir.toUri().toURL() })) {
 			Class<?> generatedClass = classLoader.loadClass(TEST_PACKAGE + "." + GenerateMojo.GENERATED_CLASS_NAME);
+			boolean writerRegistered = false;
+			for (PropertyFieldsWriter fieldsWriter : ServiceLoader.load(PropertyFieldsWriter.class, classLoader)) {
+				writerRegistered |= fieldsWriter.getMappedClass() == generatedClass;
+			}
+			assertTrue(writerRegistered);
+			assertTrue(Modifier.isVolatile(generatedClass.getDeclaredField(DATE_FIELD_NAME).getModifiers()));
 			PropertiesStore.initByAnnotatedClass(generatedClass);
 
 			for (Entry<Object, Object> testProperty : testProperties.entrySet()) {
@@ -75,4 +87,26 @@ public class PropertiesManagerMojoTest {
 
 	}
 
+	@Test
+	public void compilePropertiesTest() throws Exception {
+		File testPropertiesFile = new File(ClassLoader.getSystemResource("test.properties").getFile());
+		Properties testProperties = new Properties();
+		try (FileInputStream fis = new FileInputStream(testPropertiesFile)) {
+			testProperties.load(fis);
+		}
+		Path tempDir = Files.createDirectories(FileSystems.getDefault().getPath(System.getProperty("java.io.tmpdir") + "/properties_manager_plugin"));
+		File compiledPropertiesFile = tempDir.resolve("properties.bin").toFile();
+
+		new CompileMojo().compileProperties(Arrays.asList(testPropertiesFile.toString()), StandardCharsets.ISO_8859_1, compiledPropertiesFile);
+
+		try (PropertiesManager manager = new PropertiesManager()) {
+			manager.getOptions().setHotReload(false);
+			manager.getOptions().setCompiledPropertiesLocation(compiledPropertiesFile.toString());
+			manager.loadProperties(testPropertiesFile.toString());
+			for (Entry<Object, Object> testProperty : testProperties.entrySet()) {
+				assertTrue(testProperty.getValue().equals(manager.getProperty((String) testProperty.getKey())));
+			}
+		}
+	}
+
 }